@@ -85,6 +85,10 @@ public class Main extends JFrame {
     }
 
     public static void main(String[] args) {
+        // Any arguments mean batch mode: no window, no display needed
+        if (args.length > 0) {
+            System.exit(cli.BatchCompress.run(args));
+        }
         SwingUtilities.invokeLater(() -> {
             Main mainWindow = new Main();
             mainWindow.setVisible(true);
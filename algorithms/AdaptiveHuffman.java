@@ -0,0 +1,301 @@
+package algorithms;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// One-pass adaptive Huffman coding (FGK). Encoder and decoder start from the same empty tree and
+// update it after every byte, so no frequency pass and no code table are needed and output can
+// start with the first byte. A byte seen for the first time is sent as the NYT ("not yet
+// transmitted") code followed by its 9-bit value; the stream ends with the EOF symbol.
+// Memory is fixed: at most 515 tree nodes plus the I/O buffers.
+public class AdaptiveHuffman {
+
+    static final int EOF = 256;
+    private static final int SYMBOLS = 257;
+    private static final int SYMBOL_BITS = 9;
+    private static final int BUFFER = 8192;
+    // Both sides halve the weights when the root reaches this, so int weights never overflow on
+    // long streams and old statistics fade
+    static final int MAX_WEIGHT = 1 << 20;
+    // More bits than one symbol can take: a root-to-leaf path plus a raw symbol after NYT
+    private static final int MAX_SYMBOL_BITS = 2 * SYMBOLS + SYMBOL_BITS;
+
+    // Tree shared by both sides. Node numbers are array indexes: the root is the highest number and
+    // weights never decrease with the number (the sibling property FGK maintains).
+    private static class Tree {
+        private static final int NODES = 2 * SYMBOLS + 1;
+        private static final int NYT = -2;
+
+        final int[] weight = new int[NODES];
+        final int[] parent = new int[NODES];
+        final int[] left = new int[NODES];
+        final int[] right = new int[NODES];
+        final int[] symbol = new int[NODES];
+        final int[] leafOf = new int[SYMBOLS];
+        final int root = NODES - 1;
+        int nyt = root;
+        private final int[] path = new int[NODES];
+
+        Tree() {
+            java.util.Arrays.fill(leafOf, -1);
+            parent[root] = -1;
+            left[root] = -1;
+            right[root] = -1;
+            symbol[root] = NYT;
+        }
+
+        void encode(int s, BitWriter out) {
+            int leaf = leafOf[s];
+            if (leaf >= 0) {
+                writePath(leaf, out);
+                update(leaf);
+            } else {
+                writePath(nyt, out);
+                out.write(s, SYMBOL_BITS);
+                update(add(s));
+            }
+            if (weight[root] >= MAX_WEIGHT) rescale();
+        }
+
+        int decode(BitReader in) {
+            int node = root;
+            while (left[node] >= 0) {
+                node = in.readBit() == 0 ? left[node] : right[node];
+            }
+            int s;
+            if (node != nyt) {
+                s = symbol[node];
+                update(node);
+            } else {
+                s = in.read(SYMBOL_BITS);
+                if (s >= SYMBOLS || leafOf[s] >= 0) throw new IllegalArgumentException("Corrupt adaptive Huffman stream");
+                update(add(s));
+            }
+            if (weight[root] >= MAX_WEIGHT) rescale();
+            return s;
+        }
+
+        private void writePath(int node, BitWriter out) {
+            int depth = 0;
+            for (int n = node; n != root; n = parent[n]) {
+                path[depth++] = right[parent[n]] == n ? 1 : 0;
+            }
+            while (depth > 0) out.write(path[--depth], 1);
+        }
+
+        // The NYT node splits into a new NYT (left) and a zero-weight leaf for s (right)
+        private int add(int s) {
+            int oldNyt = nyt;
+            int leaf = oldNyt - 1;
+            int newNyt = oldNyt - 2;
+            left[oldNyt] = newNyt;
+            right[oldNyt] = leaf;
+            symbol[oldNyt] = -1;
+
+            parent[leaf] = oldNyt;
+            left[leaf] = -1;
+            right[leaf] = -1;
+            symbol[leaf] = s;
+            leafOf[s] = leaf;
+
+            parent[newNyt] = oldNyt;
+            left[newNyt] = -1;
+            right[newNyt] = -1;
+            symbol[newNyt] = NYT;
+            nyt = newNyt;
+            return leaf;
+        }
+
+        // Walk to the root; each node first trades places with the highest-numbered node of equal
+        // weight (unless that is its parent), then gets its weight incremented
+        private void update(int node) {
+            while (node >= 0) {
+                int w = weight[node];
+                int leader = node;
+                while (leader < root && weight[leader + 1] == w) leader++;
+                if (leader != node && leader != parent[node]) {
+                    swap(node, leader);
+                    node = leader;
+                }
+                weight[node]++;
+                node = parent[node];
+            }
+        }
+
+        // Halves every leaf weight (seen symbols keep at least 1, NYT stays 0) and rebuilds the tree
+        // by merging the two lightest nodes, numbering nodes in the order they are taken. That
+        // order has non-decreasing weights and puts siblings next to each other, so the rebuilt tree
+        // has the sibling property again, with NYT as the lowest node so add() can grow below it.
+        private void rescale() {
+            int leaves = 0;
+            long[] order = new long[SYMBOLS + 1];
+            for (int node = nyt; node <= root; node++) {
+                if (left[node] >= 0) continue;
+                int w = symbol[node] == NYT ? 0 : Math.max(1, weight[node] >>> 1);
+                // weight, then symbol (NYT as 0) so both sides sort identically
+                order[leaves++] = (long) w << 10 | (symbol[node] + 2);
+            }
+            java.util.Arrays.sort(order, 0, leaves);
+
+            // Two queues: sorted leaves, and merged nodes (created in non-decreasing weight order)
+            int[] mergedWeight = new int[leaves];
+            int[] mergedLeft = new int[leaves];
+            int[] mergedRight = new int[leaves];
+            int leafHead = 0, mergedHead = 0, mergedTail = 0;
+            int number = root - (2 * leaves - 2);
+            int[] taken = new int[2];
+            while (true) {
+                for (int k = 0; k < 2; k++) {
+                    int n = number++;
+                    if (mergedHead == mergedTail || (leafHead < leaves
+                            && (int) (order[leafHead] >>> 10) <= mergedWeight[mergedHead])) {
+                        weight[n] = (int) (order[leafHead] >>> 10);
+                        symbol[n] = (int) (order[leafHead++] & 0x3FF) - 2;
+                        left[n] = -1;
+                        right[n] = -1;
+                    } else {
+                        weight[n] = mergedWeight[mergedHead];
+                        symbol[n] = -1;
+                        left[n] = mergedLeft[mergedHead];
+                        right[n] = mergedRight[mergedHead++];
+                    }
+                    relink(n);
+                    taken[k] = n;
+                    if (n == root) {
+                        parent[root] = -1;
+                        return;
+                    }
+                }
+                mergedWeight[mergedTail] = weight[taken[0]] + weight[taken[1]];
+                mergedLeft[mergedTail] = taken[0];
+                mergedRight[mergedTail++] = taken[1];
+            }
+        }
+
+        // Exchanges the subtrees hanging at two positions; positions keep their parent and weight
+        private void swap(int a, int b) {
+            int t = symbol[a]; symbol[a] = symbol[b]; symbol[b] = t;
+            t = left[a]; left[a] = left[b]; left[b] = t;
+            t = right[a]; right[a] = right[b]; right[b] = t;
+            relink(a);
+            relink(b);
+        }
+
+        private void relink(int node) {
+            if (left[node] >= 0) {
+                parent[left[node]] = node;
+                parent[right[node]] = node;
+            } else if (symbol[node] == NYT) {
+                nyt = node;
+            } else {
+                leafOf[symbol[node]] = node;
+            }
+        }
+    }
+
+    // Compressing OutputStream; close() writes the EOF symbol, flush() pushes out whole bytes
+    public static class Encoder extends OutputStream {
+        private final Tree tree = new Tree();
+        private final BitWriter bits;
+        private final OutputStream out;
+        private boolean closed;
+
+        public Encoder(OutputStream out) {
+            this.out = out;
+            this.bits = new BitWriter(out, BUFFER);
+        }
+
+        @Override
+        public void write(int b) {
+            tree.encode(b & 0xFF, bits);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) tree.encode(b[i] & 0xFF, bits);
+        }
+
+        @Override
+        public void flush() {
+            bits.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            tree.encode(EOF, bits);
+            bits.finish();
+            out.close();
+        }
+    }
+
+    // Decompressing InputStream; returns -1 once the EOF symbol has been read
+    public static class Decoder extends InputStream {
+        private final Tree tree = new Tree();
+        private final BitReader bits;
+        private final InputStream in;
+        private boolean done;
+
+        public Decoder(InputStream in) {
+            this.in = in;
+            this.bits = new BitReader(in, BUFFER);
+        }
+
+        @Override
+        public int read() {
+            if (done) return -1;
+            int s = tree.decode(bits);
+            if (s == EOF) {
+                done = true;
+                return -1;
+            }
+            return s;
+        }
+
+        // Blocks only until some output is available: once n > 0, stops before a symbol that might
+        // not be fully buffered, so a live stream's bytes are handed out as they arrive
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            int n = 0;
+            while (n < len) {
+                if (n > 0 && bits.wouldBlock(MAX_SYMBOL_BITS)) break;
+                int s = read();
+                if (s < 0) break;
+                b[off + n++] = (byte) s;
+            }
+            return n == 0 ? -1 : n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    public static byte[] compress(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 2 + 16);
+        try (Encoder enc = new Encoder(bytes)) {
+            enc.write(data, 0, data.length);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static byte[] decompress(byte[] compressed) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(compressed.length * 2 + 16);
+        try (Decoder dec = new Decoder(new ByteArrayInputStream(compressed))) {
+            byte[] buf = new byte[BUFFER];
+            int n;
+            while ((n = dec.read(buf, 0, buf.length)) > 0) bytes.write(buf, 0, n);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,114 @@
+package algorithms;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// Reads MSB-first bit fields written by BitWriter, from a byte array or through a fixed buffer
+// from an InputStream. Reading past the end yields zero bits and sets exhausted().
+public class BitReader {
+
+    private final byte[] buf;
+    private final int start;
+    private int pos;           // next byte to load into acc
+    private int limit;
+    private long acc;          // pending bits, left-aligned (next bit is the top bit)
+    private int accBits;       // number of valid bits in acc
+    private final InputStream source;
+    private boolean sourceDone;
+    private long padBits;      // zero bits appended to acc past the end of the input
+
+    public BitReader(byte[] buf) {
+        this(buf, 0, buf.length);
+    }
+
+    public BitReader(byte[] buf, int offset, int length) {
+        this.buf = buf;
+        this.start = offset;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.source = null;
+    }
+
+    // Streaming mode: memory stays at bufferBytes
+    public BitReader(InputStream source, int bufferBytes) {
+        this.buf = new byte[Math.max(8, bufferBytes)];
+        this.start = 0;
+        this.source = source;
+    }
+
+    // Look at the next n bits without consuming them (1 <= n <= 32)
+    public int peek(int n) {
+        if (accBits < n) refill(n);
+        return (int) (acc >>> (64 - n));
+    }
+
+    public void skip(int n) {
+        if (accBits < n) refill(n);
+        acc <<= n;
+        accBits -= n;
+    }
+
+    public int read(int n) {
+        int v = peek(n);
+        acc <<= n;
+        accBits -= n;
+        return v;
+    }
+
+    // Bits consumed since the start of the array range (array mode only)
+    public long bitPosition() {
+        return (long) (pos - start) * 8 - accBits;
+    }
+
+    public int readBit() {
+        return read(1);
+    }
+
+    // Whether reading n bits may block on the stream: fewer are buffered and the source is not
+    // finished. n may exceed 32 to ask about several reads ahead.
+    public boolean wouldBlock(int n) {
+        if (source == null || sourceDone) return false;
+        return accBits + (long) Math.max(0, limit - pos) * 8 < n;
+    }
+
+    // True once a read has returned padding instead of input bits
+    public boolean exhausted() {
+        return padBits > accBits;
+    }
+
+    // Tops acc up to at least 57 bits from the buffer; a stream is only read (and may
+    // block) while fewer than 'need' bits are available
+    private void refill(int need) {
+        while (accBits <= 56) {
+            if (pos >= limit && source != null && !sourceDone) {
+                if (accBits >= need) return;
+                load();
+            }
+            int b;
+            if (pos < limit) {
+                b = buf[pos] & 0xFF;
+            } else {
+                b = 0;
+                padBits += 8;
+            }
+            pos++;
+            acc |= (long) b << (56 - accBits);
+            accBits += 8;
+        }
+    }
+
+    private void load() {
+        try {
+            int n = source.read(buf, 0, buf.length);
+            if (n < 0) {
+                sourceDone = true;
+                n = 0;
+            }
+            pos = 0;
+            limit = n;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package algorithms;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+// Packs variable-length codes MSB-first into a growable byte array, or through a fixed
+// buffer into an OutputStream when constructed with one.
+public class BitWriter {
+
+    private byte[] buf;
+    private int pos;           // bytes already stored in buf
+    private long acc;          // pending bits, right-aligned
+    private int accBits;       // number of pending bits in acc (always < 32 between calls)
+    private long bitLength;    // total bits written
+    private final OutputStream sink;
+
+    public BitWriter() {
+        this(64);
+    }
+
+    public BitWriter(int initialBytes) {
+        buf = new byte[Math.max(8, initialBytes)];
+        sink = null;
+    }
+
+    // Streaming mode: memory stays at bufferBytes, full buffers are written to the sink
+    public BitWriter(OutputStream sink, int bufferBytes) {
+        buf = new byte[Math.max(8, bufferBytes)];
+        this.sink = sink;
+    }
+
+    // Append the low 'len' bits of 'code' (0 <= len <= 32)
+    public void write(int code, int len) {
+        acc = (acc << len) | (code & ((1L << len) - 1));
+        accBits += len;
+        bitLength += len;
+        if (accBits >= 32) {
+            accBits -= 32;
+            ensureCapacity(4);
+            int word = (int) (acc >>> accBits);
+            buf[pos] = (byte) (word >>> 24);
+            buf[pos + 1] = (byte) (word >>> 16);
+            buf[pos + 2] = (byte) (word >>> 8);
+            buf[pos + 3] = (byte) word;
+            pos += 4;
+        }
+    }
+
+    public long bitLength() {
+        return bitLength;
+    }
+
+    // Bytes needed to hold everything written so far (last byte zero-padded)
+    public int byteLength() {
+        return (int) ((bitLength + 7) >>> 3);
+    }
+
+    // Packed output; trailing bits of the last byte are zero
+    public byte[] toByteArray() {
+        byte[] out = Arrays.copyOf(buf, byteLength());
+        int p = pos;
+        int bits = accBits;
+        while (bits > 0) {
+            int shift = bits - 8;
+            out[p++] = (byte) (shift >= 0 ? acc >>> shift : acc << -shift);
+            bits -= 8;
+        }
+        return out;
+    }
+
+    // Streaming mode: push every complete byte to the sink; a partial byte stays pending
+    public void flush() {
+        while (accBits >= 8) {
+            accBits -= 8;
+            ensureCapacity(1);
+            buf[pos++] = (byte) (acc >>> accBits);
+        }
+        drain();
+    }
+
+    // Streaming mode: zero-pad the last byte and write everything out
+    public void finish() {
+        int pad = (8 - accBits % 8) % 8;
+        acc <<= pad;
+        accBits += pad;
+        flush();
+    }
+
+    private void drain() {
+        try {
+            sink.write(buf, 0, pos);
+            sink.flush();
+            pos = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (pos + extra <= buf.length) return;
+        if (sink != null) {
+            drain();
+        } else {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package algorithms;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Multi-core Huffman: the text is cut into independent blocks, each a complete Huffman.encode
+// stream with its own code-length header, and blocks are encoded and decoded in parallel.
+// Layout: block count, then per block its byte length and symbol count (all 4-byte ints), then
+// the blocks back to back, so every block's input and output position is a prefix sum.
+public class BlockHuffman {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 18;
+
+    public static byte[] encode(String text) {
+        return encode(text, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public static byte[] encode(String text, int blockSize, ForkJoinPool pool) {
+        if (blockSize <= 0) throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        int blocks = (text.length() + blockSize - 1) / blockSize;
+        byte[][] encoded = new byte[blocks][];
+        pool.invoke(new EncodeTask(text, blockSize, encoded, 0, blocks));
+
+        int size = 4 + 8 * blocks;
+        for (byte[] block : encoded) size += block.length;
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(blocks);
+        for (int b = 0; b < blocks; b++) {
+            out.putInt(encoded[b].length);
+            out.putInt(Math.min(blockSize, text.length() - b * blockSize));
+        }
+        for (byte[] block : encoded) out.put(block);
+        return out.array();
+    }
+
+    public static String decode(byte[] data) {
+        return decode(data, ForkJoinPool.commonPool());
+    }
+
+    public static String decode(byte[] data, ForkJoinPool pool) {
+        if (data == null || data.length == 0) return "";
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (data.length < 4) throw new IllegalArgumentException("Truncated Huffman stream");
+        int blocks = in.getInt();
+        if (blocks < 0 || blocks > (data.length - 4) / 8) {
+            throw new IllegalArgumentException("Truncated Huffman stream or bad block count: " + blocks);
+        }
+        int[] offset = new int[blocks + 1];
+        int[] outOffset = new int[blocks + 1];
+        offset[0] = 4 + 8 * blocks;
+        for (int b = 0; b < blocks; b++) {
+            int size = in.getInt();
+            int count = in.getInt();
+            if (size < 0 || count < 0) throw new IllegalArgumentException("Negative length in block " + b);
+            if (size > data.length - offset[b]) throw new IllegalArgumentException("Truncated Huffman stream");
+            if (count > Integer.MAX_VALUE - 8 - outOffset[b]) throw new IllegalArgumentException("Huffman output exceeds 2 GB");
+            offset[b + 1] = offset[b] + size;
+            outOffset[b + 1] = outOffset[b] + count;
+        }
+        char[] out = new char[outOffset[blocks]];
+        pool.invoke(new DecodeTask(data, offset, out, outOffset, 0, blocks));
+        return new String(out);
+    }
+
+    private static class EncodeTask extends RecursiveAction {
+        private final String text;
+        private final int blockSize;
+        private final byte[][] encoded;
+        private final int from, to;
+
+        EncodeTask(String text, int blockSize, byte[][] encoded, int from, int to) {
+            this.text = text;
+            this.blockSize = blockSize;
+            this.encoded = encoded;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new EncodeTask(text, blockSize, encoded, from, mid),
+                          new EncodeTask(text, blockSize, encoded, mid, to));
+                return;
+            }
+            if (to == from) return;
+            int start = from * blockSize;
+            int end = Math.min(text.length(), start + blockSize);
+            encoded[from] = Huffman.encode(text, start, end).data;
+        }
+    }
+
+    private static class DecodeTask extends RecursiveAction {
+        private final byte[] data;
+        private final int[] offset;
+        private final char[] out;
+        private final int[] outOffset;
+        private final int from, to;
+
+        DecodeTask(byte[] data, int[] offset, char[] out, int[] outOffset, int from, int to) {
+            this.data = data;
+            this.offset = offset;
+            this.out = out;
+            this.outOffset = outOffset;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new DecodeTask(data, offset, out, outOffset, from, mid),
+                          new DecodeTask(data, offset, out, outOffset, mid, to));
+                return;
+            }
+            if (to == from) return;
+            int count = Huffman.decode(data, offset[from], offset[from + 1] - offset[from], out, outOffset[from]);
+            if (count != outOffset[from + 1] - outOffset[from]) {
+                throw new IllegalArgumentException("Block " + from + " holds " + count + " symbols, table says "
+                        + (outOffset[from + 1] - outOffset[from]));
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package algorithms;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Byte-oriented view of a compressor, so benchmarks, streams and batch jobs can drive any
+// algorithm the same way. Instances come from Codecs.get(name, level) and are stateless.
+public interface Codec {
+
+    String name();
+
+    // Upper bound on the bytes encode() writes for length input bytes
+    int maxEncodedLength(int length);
+
+    // Encodes input's remaining bytes into out, which needs maxEncodedLength(input.remaining())
+    // room; consumes input and returns the number of bytes written
+    int encode(ByteBuffer input, ByteBuffer out);
+
+    // Decodes the stream in input's remaining bytes into out; consumes input and returns the
+    // number of bytes written, or throws BufferOverflowException if out is too small
+    int decode(ByteBuffer input, ByteBuffer out);
+
+    // Decodes a whole stream produced by encode()
+    byte[] decode(byte[] data);
+
+    // Predicted encode() size of input's remaining bytes, without consuming them. Sampling codecs
+    // read just enough of a large input to land within about relativeError of the real size;
+    // this default encodes everything, so it is exact
+    default long estimateEncodedLength(ByteBuffer input, double relativeError) {
+        ByteBuffer out = ByteBuffer.allocate(maxEncodedLength(input.remaining()));
+        return encode(input.duplicate(), out);
+    }
+
+    default byte[] encode(byte[] input) {
+        ByteBuffer out = ByteBuffer.allocate(maxEncodedLength(input.length));
+        encode(ByteBuffer.wrap(input), out);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+}
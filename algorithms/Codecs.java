@@ -0,0 +1,330 @@
+package algorithms;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Name -> Codec registry. A level picks a codec's speed/ratio trade-off where it has one:
+//   rle      no levels (only DEFAULT_LEVEL is accepted)
+//   huffman  no levels (only DEFAULT_LEVEL is accepted)
+//   lzw      maximum code width in bits, 9-24 (default LZW.DEFAULT_MAX_BITS)
+public class Codecs {
+
+    public static final int DEFAULT_LEVEL = 0;
+    public static final double DEFAULT_ERROR = 0.05;
+    public static final int SAMPLE_BLOCK = 1 << 14;
+    // The codecs feed long inputs to the encoders in slices of this size and check for
+    // interruption between them, so a cancelled task stops promptly
+    public static final int CANCEL_CHECK_BYTES = 1 << 20;
+
+    private static final Map<String, IntFunction<Codec>> FACTORIES = new LinkedHashMap<>();
+
+    static {
+        register("rle", withoutLevels("rle", RLECodec::new));
+        register("huffman", withoutLevels("huffman", HuffmanCodec::new));
+        register("lzw", LZWCodec::new);
+    }
+
+    public static synchronized void register(String name, IntFunction<Codec> factory) {
+        FACTORIES.put(name.toLowerCase(Locale.ROOT), factory);
+    }
+
+    public static synchronized List<String> names() {
+        return new ArrayList<>(FACTORIES.keySet());
+    }
+
+    public static Codec get(String name) {
+        return get(name, DEFAULT_LEVEL);
+    }
+
+    public static Codec get(String name, int level) {
+        IntFunction<Codec> factory;
+        synchronized (Codecs.class) {
+            factory = FACTORIES.get(name.toLowerCase(Locale.ROOT));
+        }
+        if (factory == null) throw new IllegalArgumentException("Unknown codec '" + name + "', expected one of " + names());
+        return factory.apply(level);
+    }
+
+    // Factory for a codec with no trade-off to pick, so a level given to it is a mistake
+    private static IntFunction<Codec> withoutLevels(String name, Supplier<Codec> codec) {
+        return level -> {
+            if (level != DEFAULT_LEVEL) throw new IllegalArgumentException(name + " has no levels, got " + level);
+            return codec.get();
+        };
+    }
+
+    // Called between slices of a long encode; the interrupt comes from Future.cancel(true) or
+    // ExecutorService.shutdownNow() and stays set for the caller to see
+    static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException("Encoding interrupted");
+    }
+
+    // Bytes to sample for an estimate within about relativeError. The spread of the mean ratio
+    // over k blocks falls as 1/sqrt(k), so 1/e^2 blocks keeps two standard errors near e when
+    // block ratios vary by up to half their mean. Non-positive errors mean "sample everything"
+    static long sampleBudget(double relativeError) {
+        if (!(relativeError > 0)) return Long.MAX_VALUE;
+        return (long) Math.ceil(1 / (relativeError * relativeError)) * SAMPLE_BLOCK;
+    }
+
+    // Offsets of count blocks of blockSize spread evenly over length bytes
+    static int[] samplePositions(int length, int blockSize, int count) {
+        int[] positions = new int[count];
+        long span = length - blockSize;
+        for (int i = 1; i < count; i++) positions[i] = (int) (span * i / (count - 1));
+        return positions;
+    }
+
+    // Copies input[position + offset, + out.length) without moving input
+    static void copyBlock(ByteBuffer input, int offset, byte[] out) {
+        ByteBuffer src = input.duplicate();
+        src.position(input.position() + offset);
+        src.get(out);
+    }
+
+    static long scale(long sampled, long sampleBytes, long total) {
+        return Math.round((double) sampled * total / sampleBytes);
+    }
+
+    // Consumes input's remaining bytes as an array of their own
+    static byte[] take(ByteBuffer input) {
+        byte[] data = new byte[input.remaining()];
+        input.get(data);
+        return data;
+    }
+
+    public static class RLECodec implements Codec {
+        public String name() {
+            return "rle";
+        }
+
+        // Each slice can end in one more literal header than the unsliced scan would write
+        public int maxEncodedLength(int length) {
+            return (int) Math.min(Integer.MAX_VALUE - 8, RLE.maxEncodedLength(length) + 2L * (length / CANCEL_CHECK_BYTES));
+        }
+
+        // RLE tokens never span a slice, so the slices' streams simply concatenate
+        public int encode(ByteBuffer input, ByteBuffer out) {
+            int start = out.position();
+            int end = input.limit();
+            try {
+                while (input.position() < end) {
+                    checkCancelled();
+                    input.limit((int) Math.min(end, (long) input.position() + CANCEL_CHECK_BYTES));
+                    RLE.encode(input, out);
+                }
+            } finally {
+                input.limit(end);
+            }
+            return out.position() - start;
+        }
+
+        public int decode(ByteBuffer input, ByteBuffer out) {
+            int start = out.position();
+            RLE.decode(input, out);
+            return out.position() - start;
+        }
+
+        public byte[] encode(byte[] input) {
+            ByteBuffer out = ByteBuffer.allocate(maxEncodedLength(input.length));
+            encode(ByteBuffer.wrap(input), out);
+            return Arrays.copyOf(out.array(), out.position());
+        }
+
+        // Runs the RLE scan over evenly spaced sample blocks; runs cut by a block edge make the
+        // estimate lean high on data whose runs are longer than SAMPLE_BLOCK
+        public long estimateEncodedLength(ByteBuffer input, double relativeError) {
+            int length = input.remaining();
+            long budget = sampleBudget(relativeError);
+            if (length <= budget) return Codec.super.estimateEncodedLength(input, relativeError);
+            int count = (int) (budget / SAMPLE_BLOCK);
+            ByteBuffer out = ByteBuffer.allocate(RLE.maxEncodedLength(SAMPLE_BLOCK));
+            long sampled = 0;
+            for (int offset : samplePositions(length, SAMPLE_BLOCK, count)) {
+                checkCancelled();
+                ByteBuffer block = input.duplicate();
+                block.position(input.position() + offset);
+                block.limit(block.position() + SAMPLE_BLOCK);
+                out.clear();
+                RLE.encode(block, out);
+                sampled += out.position();
+            }
+            return scale(sampled, (long) count * SAMPLE_BLOCK, length);
+        }
+
+        public byte[] decode(byte[] data) {
+            return RLE.decode(data);
+        }
+    }
+
+    public static class HuffmanCodec implements Codec {
+        // Dense code-length header for a full byte alphabet plus the 32-bit symbol count
+        private static final int HEADER_BYTES = 134 + 4;
+
+        public String name() {
+            return "huffman";
+        }
+
+        public int maxEncodedLength(int length) {
+            return (int) Math.min(Integer.MAX_VALUE - 8, HEADER_BYTES + ((long) length * Huffman.MAX_CODE_LENGTH + 7) / 8);
+        }
+
+        public int encode(ByteBuffer input, ByteBuffer out) {
+            byte[] encoded;
+            if (input.hasArray()) {
+                encoded = encode(input.array(), input.arrayOffset() + input.position(), input.remaining());
+                input.position(input.limit());
+            } else {
+                byte[] data = take(input);
+                encoded = encode(data, 0, data.length);
+            }
+            out.put(encoded);
+            return encoded.length;
+        }
+
+        public int decode(ByteBuffer input, ByteBuffer out) {
+            byte[] data = take(input);
+            if (data.length == 0) return 0;
+            int length = Huffman.decodedLength(data, 0, data.length);
+            if (out.remaining() < length) throw new BufferOverflowException();
+            if (out.hasArray()) {
+                Huffman.decode(data, 0, data.length, out.array(), out.arrayOffset() + out.position());
+                out.position(out.position() + length);
+            } else {
+                out.put(decode(data));
+            }
+            return length;
+        }
+
+        public byte[] encode(byte[] input) {
+            return encode(input, 0, input.length);
+        }
+
+        // Huffman.encode() with the payload written a slice at a time
+        private static byte[] encode(byte[] data, int offset, int length) {
+            int[] freq = length == 0 ? new int[0] : Histogram.count(data, offset, length);
+            HuffmanCode code = Huffman.buildCode(Histogram.trim(freq));
+            BitWriter out = Huffman.startEncode(code, freq, length);
+            for (int from = offset, end = offset + length; from < end; from += CANCEL_CHECK_BYTES) {
+                checkCancelled();
+                Huffman.writeSymbols(out, code, data, from, (int) Math.min(end, (long) from + CANCEL_CHECK_BYTES));
+            }
+            return out.toByteArray();
+        }
+
+        // Code-length sum over a sampled histogram: the code is built from the sample, its payload
+        // scaled up to the full length, and the header measured exactly
+        public long estimateEncodedLength(ByteBuffer input, double relativeError) {
+            int length = input.remaining();
+            long budget = sampleBudget(relativeError);
+            int blockSize = length <= budget ? length : SAMPLE_BLOCK;
+            int count = length <= budget ? 1 : (int) (budget / SAMPLE_BLOCK);
+            byte[] block = new byte[blockSize];
+            int[] freq = new int[256];
+            for (int offset : samplePositions(length, blockSize, count)) {
+                checkCancelled();
+                copyBlock(input, offset, block);
+                int[] counts = Histogram.count(block);
+                for (int s = 0; s < counts.length; s++) freq[s] += counts[s];
+            }
+            HuffmanCode code = Huffman.buildCode(Histogram.trim(freq));
+            BitWriter header = new BitWriter();
+            code.writeHeader(header);
+            long payloadBits = scale(code.encodedBits(freq), (long) count * blockSize, length);
+            return (header.bitLength() + 32 + payloadBits + 7) / 8;
+        }
+
+        public byte[] decode(byte[] data) {
+            if (data.length == 0) return data;
+            byte[] out = new byte[Huffman.decodedLength(data, 0, data.length)];
+            Huffman.decode(data, 0, data.length, out, 0);
+            return out;
+        }
+    }
+
+    public static class LZWCodec implements Codec {
+        private static final int LZW_SEGMENT = 1 << 19;
+        private static final int LZW_HEADER = 2;
+
+        public final int maxBits;
+
+        public LZWCodec(int level) {
+            maxBits = level == DEFAULT_LEVEL ? LZW.DEFAULT_MAX_BITS : level;
+            if (maxBits < LZWEncoder.MIN_BITS || maxBits > LZWEncoder.MAX_BITS) {
+                throw new IllegalArgumentException("LZW level is the code width, " + LZWEncoder.MIN_BITS + "-"
+                        + LZWEncoder.MAX_BITS + ", got " + level);
+            }
+        }
+
+        public String name() {
+            return "lzw";
+        }
+
+        // Every code covers at least one byte; add a CLEAR per filled dictionary, the STOP and the header
+        public int maxEncodedLength(int length) {
+            long codes = length + length / ((1 << LZWEncoder.MIN_BITS) - LZWEncoder.FIRST_CODE) + 2;
+            return (int) Math.min(Integer.MAX_VALUE - 8, 2 + (codes * maxBits + 7) / 8);
+        }
+
+        public int encode(ByteBuffer input, ByteBuffer out) {
+            byte[] encoded = encode(take(input));
+            out.put(encoded);
+            return encoded.length;
+        }
+
+        public int decode(ByteBuffer input, ByteBuffer out) {
+            byte[] decoded = decode(take(input));
+            out.put(decoded);
+            return decoded.length;
+        }
+
+        // LZW.encode() with the input fed to the encoder a slice at a time
+        public byte[] encode(byte[] input) {
+            BitWriter out = new BitWriter(input.length / 2 + 16);
+            LZWEncoder encoder = LZW.start(out, maxBits, LZW.Policy.RESET, input.length);
+            for (int off = 0; off < input.length; off += CANCEL_CHECK_BYTES) {
+                checkCancelled();
+                encoder.write(input, off, Math.min(CANCEL_CHECK_BYTES, input.length - off));
+            }
+            encoder.finish();
+            return out.toByteArray();
+        }
+
+        // Counts phrases on a few long segments. Each segment's first half only warms up the
+        // dictionary (resetting when it fills, like the real stream), and the bits spent on the
+        // second half are what gets scaled, so the estimate does not pay for a cold start per sample
+        public long estimateEncodedLength(ByteBuffer input, double relativeError) {
+            int length = input.remaining();
+            long budget = sampleBudget(relativeError);
+            if (length <= Math.max(budget, LZW_SEGMENT)) return Codec.super.estimateEncodedLength(input, relativeError);
+            int count = (int) Math.max(1, budget / LZW_SEGMENT);
+            int warmup = LZW_SEGMENT / 2;
+            byte[] segment = new byte[LZW_SEGMENT];
+            long sampledBits = 0;
+            for (int offset : samplePositions(length, LZW_SEGMENT, count)) {
+                checkCancelled();
+                copyBlock(input, offset, segment);
+                BitWriter out = new BitWriter(LZW_SEGMENT);
+                LZWEncoder encoder = new LZWEncoder(out, maxBits);
+                encoder.write(segment, 0, warmup);
+                long before = out.bitLength();
+                encoder.write(segment, warmup, LZW_SEGMENT - warmup);
+                sampledBits += out.bitLength() - before;
+            }
+            return LZW_HEADER + (scale(sampledBits, (long) count * (LZW_SEGMENT - warmup), length) + 7) / 8;
+        }
+
+        public byte[] decode(byte[] data) {
+            return LZW.decode(data);
+        }
+    }
+}
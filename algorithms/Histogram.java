@@ -0,0 +1,119 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Symbol frequency counting on int[] counters, split across fork-join tasks for large inputs
+public class Histogram {
+
+    // Inputs shorter than this are counted on the calling thread
+    public static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int CHUNK = 1 << 18;
+    // Char leaves are larger: a leaf that meets a char above 0xFF carries 65536 counters to merge
+    private static final int CHAR_CHUNK = 1 << 20;
+
+    // Byte histogram, 256 counters
+    public static int[] count(byte[] data) {
+        return count(data, 0, data.length);
+    }
+
+    public static int[] count(byte[] data, int offset, int length) {
+        if (length < PARALLEL_THRESHOLD) return countBytes(data, offset, offset + length);
+        return ForkJoinPool.commonPool().invoke(new ByteTask(data, offset, offset + length));
+    }
+
+    // Char histogram, 65536 counters
+    public static int[] count(String text) {
+        return count(text, 0, text.length());
+    }
+
+    public static int[] count(String text, int from, int to) {
+        int[] counts = to - from < PARALLEL_THRESHOLD
+                ? countChars(text, from, to)
+                : ForkJoinPool.commonPool().invoke(new CharTask(text, from, to));
+        return counts.length == Character.MAX_VALUE + 1 ? counts : Arrays.copyOf(counts, Character.MAX_VALUE + 1);
+    }
+
+    // Histogram cut down to the largest symbol that occurs
+    public static int[] trim(int[] freq) {
+        int end = freq.length;
+        while (end > 0 && freq[end - 1] == 0) end--;
+        return end == freq.length ? freq : Arrays.copyOf(freq, end);
+    }
+
+    // Four interleaved counter tables so runs of the same byte do not serialise on one counter
+    private static int[] countBytes(byte[] data, int from, int to) {
+        int[] c0 = new int[256], c1 = new int[256], c2 = new int[256], c3 = new int[256];
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            c0[data[i] & 0xFF]++;
+            c1[data[i + 1] & 0xFF]++;
+            c2[data[i + 2] & 0xFF]++;
+            c3[data[i + 3] & 0xFF]++;
+        }
+        for (; i < to; i++) c0[data[i] & 0xFF]++;
+        for (int s = 0; s < 256; s++) c0[s] += c1[s] + c2[s] + c3[s];
+        return c0;
+    }
+
+    // 256 counters while the text is Latin-1, widened to 65536 at the first char above 0xFF
+    private static int[] countChars(String text, int from, int to) {
+        int[] counts = new int[256];
+        int i = from;
+        for (char c; i < to && (c = text.charAt(i)) <= 0xFF; i++) counts[c]++;
+        if (i == to) return counts;
+        counts = Arrays.copyOf(counts, Character.MAX_VALUE + 1);
+        for (; i < to; i++) counts[text.charAt(i)]++;
+        return counts;
+    }
+
+    // Adds the shorter table into the longer one
+    private static int[] merge(int[] a, int[] b) {
+        if (a.length < b.length) return merge(b, a);
+        for (int s = 0; s < b.length; s++) a[s] += b[s];
+        return a;
+    }
+
+    private static class ByteTask extends RecursiveTask<int[]> {
+        private final byte[] data;
+        private final int from, to;
+
+        ByteTask(byte[] data, int from, int to) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= CHUNK) return countBytes(data, from, to);
+            int mid = (from + to) >>> 1;
+            ByteTask left = new ByteTask(data, from, mid);
+            left.fork();
+            int[] right = new ByteTask(data, mid, to).compute();
+            return merge(right, left.join());
+        }
+    }
+
+    private static class CharTask extends RecursiveTask<int[]> {
+        private final String text;
+        private final int from, to;
+
+        CharTask(String text, int from, int to) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= CHAR_CHUNK) return countChars(text, from, to);
+            int mid = (from + to) >>> 1;
+            CharTask left = new CharTask(text, from, mid);
+            left.fork();
+            int[] right = new CharTask(text, mid, to).compute();
+            return merge(right, left.join());
+        }
+    }
+}
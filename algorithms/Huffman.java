@@ -4,6 +4,9 @@ import java.util.*;
 
 public class Huffman {
 
+    // Longest code encode() will emit; keeps decoder tables small and headers compact
+    public static final int MAX_CODE_LENGTH = 15;
+
     public static class Step {
         public String title;
         public String explanation;
@@ -15,6 +18,74 @@ public class Huffman {
         }
     }
 
+    // Stages of compressWithSteps; every callback defaults to doing nothing
+    public interface StepListener {
+        StepListener NONE = new StepListener() {};
+
+        default void emptyInput() {}
+        default void frequencies(int[] freq) {}
+        default void merged(HuffmanNode left, HuffmanNode right, HuffmanNode parent) {}
+        default void codesAssigned(Map<Character, String> codes) {}
+        default void encoded(String bits) {}
+    }
+
+    // Teaching mode listener: turns each stage into a Step for the visualizer
+    public static class StepRecorder implements StepListener {
+        public final List<Step> steps = new ArrayList<>();
+
+        @Override
+        public void emptyInput() {
+            steps.add(new Step(
+                "Empty Input",
+                "No input text provided.",
+                null
+            ));
+        }
+
+        @Override
+        public void frequencies(int[] freq) {
+            Map<Character, Integer> freqMap = new HashMap<>();
+            for (int s = 0; s < freq.length; s++) {
+                if (freq[s] > 0) freqMap.put((char) s, freq[s]);
+            }
+            steps.add(new Step(
+                "Step 1: Frequency Table Built",
+                "Calculated frequency of each character in input.",
+                freqMap
+            ));
+        }
+
+        @Override
+        public void merged(HuffmanNode left, HuffmanNode right, HuffmanNode parent) {
+            steps.add(new Step(
+                "Step " + (steps.size() + 1) + ": Combined Nodes",
+                "Combined nodes (" +
+                    (left.ch == '\0' ? left.freq : left.ch + ":" + left.freq) + ") and (" +
+                    (right.ch == '\0' ? right.freq : right.ch + ":" + right.freq) +
+                    ") → new node (" + parent.freq + ")",
+                parent
+            ));
+        }
+
+        @Override
+        public void codesAssigned(Map<Character, String> codes) {
+            steps.add(new Step(
+                "Step " + (steps.size() + 1) + ": Codes Assigned",
+                "Assigned binary codes to each character.",
+                new HashMap<>(codes)
+            ));
+        }
+
+        @Override
+        public void encoded(String bits) {
+            steps.add(new Step(
+                "Step " + (steps.size() + 1) + ": Text Encoded",
+                "Encoded text using binary Huffman codes.",
+                bits
+            ));
+        }
+    }
+
     public static class CompressResult {
         public HuffmanNode root;
         public Map<Character, String> codes;
@@ -22,86 +93,237 @@ public class Huffman {
         public List<Step> steps;
     }
 
+    // Output of encode(): a self-contained stream of code-length header, 32-bit symbol count
+    // and MSB-first payload, plus the code table it was built with
+    public static class Encoded {
+        public HuffmanCode code;
+        public byte[] data;
+        public long bitLength;
+        public long payloadOffset;  // bit position where the payload starts
+        public int length;          // number of encoded symbols
+
+        // '0'/'1' view of the payload, for the visualizer only
+        public String toBitString() {
+            StringBuilder sb = new StringBuilder((int) (bitLength - payloadOffset));
+            BitReader in = new BitReader(data);
+            for (long i = 0; i < payloadOffset; i++) in.skip(1);
+            for (long i = payloadOffset; i < bitLength; i++) {
+                sb.append(in.readBit() == 0 ? '0' : '1');
+            }
+            return sb.toString();
+        }
+    }
+
+    // Production encoder: int[] histogram, canonical length-limited codes, bit-packed output
+    public static Encoded encode(String text) {
+        return encode(text, 0, text == null ? 0 : text.length());
+    }
+
+    // Encodes text[from, to) as its own stream
+    public static Encoded encode(String text, int from, int to) {
+        Encoded result = new Encoded();
+        result.length = to - from;
+
+        int[] freq = result.length == 0 ? new int[0] : Histogram.count(text, from, to);
+        HuffmanCode code = buildCode(Histogram.trim(freq));
+        int[] codes = code.codes;
+        int[] lengths = code.lengths;
+
+        BitWriter out = new BitWriter((int) (code.encodedBits(freq) >>> 3) + 64);
+        code.writeHeader(out);
+        out.write(result.length, 32);
+        result.payloadOffset = out.bitLength();
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            out.write(codes[c], lengths[c]);
+        }
+        result.code = code;
+        result.data = out.toByteArray();
+        result.bitLength = out.bitLength();
+        return result;
+    }
+
+    public static String decode(Encoded encoded) {
+        return encoded == null ? "" : decode(encoded.data);
+    }
+
+    // Decodes a stream produced by encode(); needs nothing but the bytes
+    public static String decode(byte[] data) {
+        if (data == null || data.length == 0) return "";
+        BitReader in = new BitReader(data);
+        HuffmanCode code = HuffmanCode.readHeader(in);
+        char[] out = new char[readCount(in, code)];
+        if (out.length > 0) {
+            new HuffmanDecoder(code).decode(in, out, 0, out.length);
+        }
+        checkComplete(in);
+        return new String(out);
+    }
+
+    // Decodes the stream in data[offset, offset + length) into out at outOffset; returns the symbol count
+    public static int decode(byte[] data, int offset, int length, char[] out, int outOffset) {
+        BitReader in = new BitReader(data, offset, length);
+        HuffmanCode code = HuffmanCode.readHeader(in);
+        int count = readCount(in, code);
+        if (count > 0) {
+            new HuffmanDecoder(code).decode(in, out, outOffset, count);
+        }
+        checkComplete(in);
+        return count;
+    }
+
+    // Byte version of encode(): same stream layout, with the payload over data[offset, offset + length)
+    public static byte[] encode(byte[] data, int offset, int length) {
+        int[] freq = length == 0 ? new int[0] : Histogram.count(data, offset, length);
+        HuffmanCode code = buildCode(Histogram.trim(freq));
+        BitWriter out = startEncode(code, freq, length);
+        writeSymbols(out, code, data, offset, offset + length);
+        return out.toByteArray();
+    }
+
+    // Header of the byte stream, sized for the payload the histogram predicts
+    static BitWriter startEncode(HuffmanCode code, int[] freq, int length) {
+        BitWriter out = new BitWriter((int) (code.encodedBits(freq) >>> 3) + 64);
+        code.writeHeader(out);
+        out.write(length, 32);
+        return out;
+    }
+
+    // Payload of the byte stream for data[from, to); callers may write it a slice at a time
+    static void writeSymbols(BitWriter out, HuffmanCode code, byte[] data, int from, int to) {
+        int[] codes = code.codes;
+        int[] lengths = code.lengths;
+        for (int i = from; i < to; i++) {
+            int b = data[i] & 0xFF;
+            out.write(codes[b], lengths[b]);
+        }
+    }
+
+    // Byte version of decode(): writes the symbols into out at outOffset; returns the count
+    public static int decode(byte[] data, int offset, int length, byte[] out, int outOffset) {
+        BitReader in = new BitReader(data, offset, length);
+        HuffmanCode code = HuffmanCode.readHeader(in);
+        int count = readCount(in, code);
+        if (count > 0) {
+            new HuffmanDecoder(code).decode(in, out, outOffset, count);
+        }
+        checkComplete(in);
+        return count;
+    }
+
+    // Symbol count of the stream in data[offset, offset + length), read from its header
+    public static int decodedLength(byte[] data, int offset, int length) {
+        BitReader in = new BitReader(data, offset, length);
+        return readCount(in, HuffmanCode.readHeader(in));
+    }
+
+    // Symbol count following the code header; symbols need a non-empty code to be decoded with
+    static int readCount(BitReader in, HuffmanCode code) {
+        int count = in.read(32);
+        if (count < 0) throw new IllegalArgumentException("Negative Huffman symbol count: " + count);
+        if (count > 0 && code.maxLength() == 0) {
+            throw new IllegalArgumentException("Huffman stream has " + count + " symbols but no code");
+        }
+        if (in.exhausted()) throw new IllegalArgumentException("Truncated Huffman stream");
+        return count;
+    }
+
+    // Every symbol takes at least one bit, so a cut stream runs into padding before count symbols
+    static void checkComplete(BitReader in) {
+        if (in.exhausted()) throw new IllegalArgumentException("Truncated Huffman stream");
+    }
+
+    // Canonical code table for a histogram indexed by symbol, no code longer than MAX_CODE_LENGTH
+    public static HuffmanCode buildCode(int[] freq) {
+        HuffmanTree tree = HuffmanTree.build(freq);
+        int[] lengths = tree.codeLengths(freq.length);
+        int max = 0;
+        for (int len : lengths) max = Math.max(max, len);
+
+        // Alphabets beyond 2^15 symbols cannot fit 15-bit codes; give them the minimum that does
+        int limit = Math.max(MAX_CODE_LENGTH, 32 - Integer.numberOfLeadingZeros(tree.leaves - 1));
+        if (max > limit) {
+            lengths = HuffmanCode.limitedLengths(freq, limit);
+        }
+        return HuffmanCode.canonical(lengths);
+    }
+
     public static CompressResult compressWithSteps(String text) {
+        StepRecorder recorder = new StepRecorder();
+        CompressResult result = compressWithSteps(text, recorder);
+        result.steps = recorder.steps;
+        return result;
+    }
+
+    // Visualizer path: keeps the node tree, the code strings and the '0'/'1' text; steps go to the listener
+    public static CompressResult compressWithSteps(String text, StepListener listener) {
         CompressResult result = new CompressResult();
         result.steps = new ArrayList<>();
         if (text == null || text.isEmpty()) {
             result.root = null;
             result.codes = new HashMap<>();
             result.encoded = "";
-            result.steps.add(new Step(
-                "Empty Input",
-                "No input text provided.",
-                null
-            ));
+            listener.emptyInput();
             return result;
         }
 
-        Map<Character, Integer> freqMap = new HashMap<>();
-        for (char c : text.toCharArray())
-            freqMap.put(c, freqMap.getOrDefault(c, 0) + 1);
-
-        result.steps.add(new Step(
-            "Step 1: Frequency Table Built",
-            "Calculated frequency of each character in input.",
-            new HashMap<>(freqMap)
-        ));
+        int[] freq = Histogram.count(text);
+        listener.frequencies(freq);
 
-        PriorityQueue<HuffmanNode> pq = new PriorityQueue<>(Comparator.comparingInt(n -> n.freq));
-        for (Map.Entry<Character, Integer> e : freqMap.entrySet()) {
-            pq.add(new HuffmanNode(e.getKey(), e.getValue()));
+        // Replay the array tree's merges as HuffmanNode objects for the tree view
+        HuffmanTree tree = HuffmanTree.build(freq);
+        HuffmanNode[] nodes = new HuffmanNode[tree.freq.length];
+        for (int i = 0; i < tree.leaves; i++) {
+            nodes[i] = new HuffmanNode((char) tree.symbol[i], tree.freq[i]);
         }
-        if (pq.size() == 1) {
-            pq.add(new HuffmanNode('\0', 1));
-        }
-        int stepNum = 2;
-        while (pq.size() > 1) {
-            HuffmanNode left = pq.poll();
-            HuffmanNode right = pq.poll();
-            HuffmanNode parent = new HuffmanNode(left.freq + right.freq, left, right);
-            pq.add(parent);
-            result.steps.add(new Step(
-                "Step " + stepNum + ": Combined Nodes",
-                "Combined nodes (" +
-                    (left.ch == '\0' ? left.freq : left.ch + ":" + left.freq) + ") and (" +
-                    (right.ch == '\0' ? right.freq : right.ch + ":" + right.freq) +
-                    ") → new node (" + parent.freq + ")",
-                parent
-            ));
-            stepNum++;
+        for (int i = tree.leaves; i < nodes.length; i++) {
+            HuffmanNode left = nodes[tree.left[i]];
+            HuffmanNode right = nodes[tree.right[i]];
+            nodes[i] = new HuffmanNode(tree.freq[i], left, right);
+            listener.merged(left, right, nodes[i]);
         }
 
-        HuffmanNode root = pq.poll();
-        result.root = root;
         Map<Character, String> codes = new HashMap<>();
-        buildCodes(root, "", codes);
+        HuffmanNode root = nodes[tree.root];
+        if (tree.leaves == 1) {
+            // A lone symbol still needs one bit; pair it with an empty leaf as before
+            HuffmanNode pad = new HuffmanNode('\0', 1);
+            root = new HuffmanNode(root.freq + 1, root, pad);
+            listener.merged(root.left, pad, root);
+            codes.put(pad.ch, "1");
+        }
+        long[] pathCodes = tree.pathCodes();
+        int[] depths = tree.depths();
+        for (int i = 0; i < tree.leaves; i++) {
+            codes.put((char) tree.symbol[i], codeString(pathCodes[i], Math.max(1, depths[i])));
+        }
+        result.root = root;
         result.codes = codes;
-        result.steps.add(new Step(
-            "Step " + stepNum + ": Codes Assigned",
-            "Assigned binary codes to each character.",
-            new HashMap<>(codes)
-        ));
-        stepNum++;
+        listener.codesAssigned(codes);
         StringBuilder encoded = new StringBuilder();
         for (char c : text.toCharArray()) {
             encoded.append(codes.get(c));
         }
         result.encoded = encoded.toString();
-        result.steps.add(new Step(
-            "Step " + stepNum + ": Text Encoded",
-            "Encoded text using binary Huffman codes.",
-            result.encoded
-        ));
+        listener.encoded(result.encoded);
         return result;
     }
 
-    private static void buildCodes(HuffmanNode node, String code, Map<Character, String> codes) {
-        if (node == null) return;
-        if (node.isLeaf()) {
-            codes.put(node.ch, code.length() > 0 ? code : "0");
+    // Production entry point: self-contained bytes, no steps, no tree objects, no code strings
+    public static byte[] compress(String text) {
+        return encode(text).data;
+    }
+
+    public static String decompress(byte[] compressed) {
+        return decode(compressed);
+    }
+
+    private static String codeString(long code, int len) {
+        char[] bits = new char[len];
+        for (int i = 0; i < len; i++) {
+            bits[i] = ((code >>> (len - 1 - i)) & 1) == 0 ? '0' : '1';
         }
-        buildCodes(node.left, code + "0", codes);
-        buildCodes(node.right, code + "1", codes);
+        return new String(bits);
     }
 
     public static String decompress(String encoded, HuffmanNode root) {
@@ -0,0 +1,213 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// Code table indexed by symbol: codes[s] holds the low lengths[s] bits, lengths[s] == 0 means unused
+public class HuffmanCode {
+
+    public final int[] codes;
+    public final int[] lengths;
+
+    public HuffmanCode(int[] codes, int[] lengths) {
+        this.codes = codes;
+        this.lengths = lengths;
+    }
+
+    public int alphabetSize() {
+        return lengths.length;
+    }
+
+    public int maxLength() {
+        int max = 0;
+        for (int len : lengths) max = Math.max(max, len);
+        return max;
+    }
+
+    // Total payload size in bits for the given histogram
+    public long encodedBits(int[] freq) {
+        long bits = 0;
+        for (int s = 0; s < freq.length && s < lengths.length; s++) {
+            bits += (long) freq[s] * lengths[s];
+        }
+        return bits;
+    }
+
+    // '0'/'1' view of one code, for display only
+    public String codeString(int symbol) {
+        int len = lengths[symbol];
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = len - 1; i >= 0; i--) {
+            sb.append(((codes[symbol] >>> i) & 1) == 0 ? '0' : '1');
+        }
+        return sb.toString();
+    }
+
+    // Canonical code assignment: shorter codes first, ties broken by symbol value
+    public static HuffmanCode canonical(int[] lengths) {
+        int max = 0;
+        for (int len : lengths) max = Math.max(max, len);
+        int[] count = new int[max + 1];
+        for (int len : lengths) if (len > 0) count[len]++;
+        int[] next = new int[max + 1];
+        int code = 0;
+        for (int len = 1; len <= max; len++) {
+            code = (code + count[len - 1]) << 1;
+            next[len] = code;
+        }
+        int[] codes = new int[lengths.length];
+        for (int s = 0; s < lengths.length; s++) {
+            if (lengths[s] > 0) codes[s] = next[lengths[s]]++;
+        }
+        return new HuffmanCode(codes, lengths);
+    }
+
+    // Optimal code lengths no longer than maxLength (package-merge).
+    // Level 0 holds only leaves; every further level merges the leaves with pairs packaged from
+    // the level below. Taking the first 2n-2 items of the top level, each leaf picked on a level
+    // adds one bit to its symbol, and the packages picked there select items on the level below.
+    public static int[] limitedLengths(int[] freq, int maxLength) {
+        int[] lengths = new int[freq.length];
+        int n = 0;
+        for (int f : freq) if (f > 0) n++;
+        if (n == 0) return lengths;
+        if (n > 1 << maxLength) {
+            throw new IllegalArgumentException(n + " symbols do not fit in " + maxLength + "-bit codes");
+        }
+
+        long[] sorted = new long[n];
+        for (int s = 0, i = 0; s < freq.length; s++) {
+            if (freq[s] > 0) sorted[i++] = ((long) freq[s] << 20) | s;
+        }
+        Arrays.sort(sorted);
+        if (n == 1) {
+            lengths[(int) (sorted[0] & 0xFFFFF)] = 1;
+            return lengths;
+        }
+        long[] leaf = new long[n];
+        for (int i = 0; i < n; i++) leaf[i] = sorted[i] >>> 20;
+
+        boolean[][] isLeaf = new boolean[maxLength][];
+        isLeaf[0] = new boolean[n];
+        Arrays.fill(isLeaf[0], true);
+        long[] prev = leaf.clone();
+        int prevSize = n;
+        for (int level = 1; level < maxLength; level++) {
+            int packages = prevSize / 2;
+            long[] cur = new long[n + packages];
+            boolean[] flags = new boolean[n + packages];
+            int li = 0, pi = 0, k = 0;
+            while (li < n || pi < packages) {
+                long pw = pi < packages ? prev[2 * pi] + prev[2 * pi + 1] : Long.MAX_VALUE;
+                if (li < n && leaf[li] <= pw) {
+                    cur[k] = leaf[li++];
+                    flags[k++] = true;
+                } else {
+                    cur[k++] = pw;
+                    pi++;
+                }
+            }
+            isLeaf[level] = flags;
+            prev = cur;
+            prevSize = k;
+        }
+
+        int[] depth = new int[n];
+        int take = 2 * n - 2;
+        for (int level = maxLength - 1; level >= 0 && take > 0; level--) {
+            boolean[] flags = isLeaf[level];
+            int leaves = 0;
+            for (int i = 0; i < take; i++) if (flags[i]) leaves++;
+            for (int i = 0; i < leaves; i++) depth[i]++;
+            take = 2 * (take - leaves);
+        }
+        for (int i = 0; i < n; i++) lengths[(int) (sorted[i] & 0xFFFFF)] = depth[i];
+        return lengths;
+    }
+
+    // Serialized code lengths. Layout: 5 bits max length (0 = empty table), 1 bit sparse flag, then
+    //   dense:  16 bits first symbol, 16 bits span - 1, one length per symbol in the span
+    //   sparse: 16 bits used - 1, per used symbol an Elias-gamma symbol delta and its length
+    // Lengths take just enough bits for the max length, so a text alphabet fits in a few dozen bytes.
+    public void writeHeader(BitWriter out) {
+        int max = maxLength();
+        out.write(max, 5);
+        if (max == 0) return;
+        int width = 32 - Integer.numberOfLeadingZeros(max);
+
+        int first = -1, last = -1, used = 0;
+        long sparseBits = 0;
+        for (int s = 0; s < lengths.length; s++) {
+            if (lengths[s] == 0) continue;
+            sparseBits += gammaBits(s - last) + width;
+            if (first < 0) first = s;
+            last = s;
+            used++;
+        }
+        long denseBits = (long) (last - first + 1) * width;
+        if (sparseBits < denseBits) {
+            out.write(1, 1);
+            out.write(used - 1, 16);
+            int prev = -1;
+            for (int s = first; s <= last; s++) {
+                if (lengths[s] == 0) continue;
+                writeGamma(out, s - prev);
+                out.write(lengths[s], width);
+                prev = s;
+            }
+        } else {
+            out.write(0, 1);
+            out.write(first, 16);
+            out.write(last - first, 16);
+            for (int s = first; s <= last; s++) out.write(lengths[s], width);
+        }
+    }
+
+    public static HuffmanCode readHeader(BitReader in) {
+        int max = in.read(5);
+        if (max == 0) return new HuffmanCode(new int[0], new int[0]);
+        int width = 32 - Integer.numberOfLeadingZeros(max);
+        int[] lengths;
+        if (in.read(1) == 1) {
+            int used = in.read(16) + 1;
+            int[] symbols = new int[used];
+            int[] lens = new int[used];
+            int prev = -1;
+            for (int i = 0; i < used; i++) {
+                prev += readGamma(in);
+                if (prev > Character.MAX_VALUE || in.exhausted()) {
+                    throw new IllegalArgumentException("Truncated or corrupt Huffman header");
+                }
+                symbols[i] = prev;
+                lens[i] = in.read(width);
+            }
+            lengths = new int[prev + 1];
+            for (int i = 0; i < used; i++) lengths[symbols[i]] = lens[i];
+        } else {
+            int first = in.read(16);
+            int span = in.read(16) + 1;
+            lengths = new int[first + span];
+            for (int s = first; s < first + span; s++) lengths[s] = in.read(width);
+        }
+        if (in.exhausted()) throw new IllegalArgumentException("Truncated Huffman header");
+        return canonical(lengths);
+    }
+
+    private static int gammaBits(int value) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(value)) + 1;
+    }
+
+    private static void writeGamma(BitWriter out, int value) {
+        int n = 31 - Integer.numberOfLeadingZeros(value);
+        out.write(0, n);
+        out.write(value, n + 1);
+    }
+
+    private static int readGamma(BitReader in) {
+        int n = 0;
+        // Gaps between symbols stay below 2^17; longer prefixes only come from padding or corruption
+        while (in.read(1) == 0) {
+            if (++n > 16) throw new IllegalArgumentException("Truncated or corrupt Huffman header");
+        }
+        return (1 << n) | (n == 0 ? 0 : in.read(n));
+    }
+}
@@ -0,0 +1,102 @@
+package algorithms;
+
+// Table-driven decoder built from a code table: one probe of ROOT_BITS resolves every
+// code up to that length, longer codes go through a second-level table per root prefix.
+// Entry layout: leaf = (symbol << 8) | length, link = (offset << 8) | 0x80 | subBits.
+public class HuffmanDecoder {
+
+    public static final int ROOT_BITS = 10;
+    private static final int LINK = 0x80;
+
+    private final int[] table;
+    private final int rootBits;
+
+    public HuffmanDecoder(HuffmanCode code) {
+        int[] codes = code.codes;
+        int[] lengths = code.lengths;
+        int maxLen = code.maxLength();
+        rootBits = Math.max(1, Math.min(ROOT_BITS, maxLen));
+
+        // Longest code below each root prefix decides the size of its sub-table
+        int rootSize = 1 << rootBits;
+        int[] subBits = new int[rootSize];
+        for (int s = 0; s < lengths.length; s++) {
+            int len = lengths[s];
+            if (len > rootBits) {
+                int prefix = codes[s] >>> (len - rootBits);
+                subBits[prefix] = Math.max(subBits[prefix], len - rootBits);
+            }
+        }
+        int size = rootSize;
+        for (int bits : subBits) {
+            if (bits > 0) size += 1 << bits;
+        }
+
+        table = new int[size];
+        int next = rootSize;
+        for (int prefix = 0; prefix < rootSize; prefix++) {
+            if (subBits[prefix] > 0) {
+                table[prefix] = (next << 8) | LINK | subBits[prefix];
+                next += 1 << subBits[prefix];
+            }
+        }
+        for (int s = 0; s < lengths.length; s++) {
+            int len = lengths[s];
+            if (len == 0) continue;
+            if (len <= rootBits) {
+                fill(table, codes[s] << (rootBits - len), 1 << (rootBits - len), (s << 8) | len);
+            } else {
+                int extra = len - rootBits;
+                int link = table[codes[s] >>> extra];
+                int bits = link & 0x7F;
+                int low = codes[s] & ((1 << extra) - 1);
+                fill(table, (link >>> 8) + (low << (bits - extra)), 1 << (bits - extra), (s << 8) | extra);
+            }
+        }
+    }
+
+    public int decodeSymbol(BitReader in) {
+        int e = table[in.peek(rootBits)];
+        if ((e & LINK) == 0) {
+            in.skip(e & 0x7F);
+            return e >>> 8;
+        }
+        in.skip(rootBits);
+        e = table[(e >>> 8) + in.peek(e & 0x7F)];
+        in.skip(e & 0x7F);
+        return e >>> 8;
+    }
+
+    public void decode(BitReader in, char[] out, int offset, int length) {
+        int[] t = table;
+        int root = rootBits;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int e = t[in.peek(root)];
+            if ((e & LINK) != 0) {
+                in.skip(root);
+                e = t[(e >>> 8) + in.peek(e & 0x7F)];
+            }
+            in.skip(e & 0x7F);
+            out[i] = (char) (e >>> 8);
+        }
+    }
+
+    // Byte-alphabet variant for file and codec use
+    public void decode(BitReader in, byte[] out, int offset, int length) {
+        int[] t = table;
+        int root = rootBits;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int e = t[in.peek(root)];
+            if ((e & LINK) != 0) {
+                in.skip(root);
+                e = t[(e >>> 8) + in.peek(e & 0x7F)];
+            }
+            in.skip(e & 0x7F);
+            out[i] = (byte) (e >>> 8);
+        }
+    }
+
+    private static void fill(int[] table, int from, int count, int value) {
+        for (int i = from; i < from + count; i++) table[i] = value;
+    }
+}
@@ -0,0 +1,142 @@
+package algorithms;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Huffman over files of any size with constant memory. Pass one streams the file through a
+// FileChannel to build the byte histogram (or reads a few evenly spaced sample blocks instead),
+// pass two streams it again through the code table into the output channel.
+// Layout: code-length header, 64-bit input length, payload.
+public class HuffmanFile {
+
+    public static final int BUFFER = 1 << 20;
+    public static final int SAMPLE_BLOCK = 1 << 16;
+
+    // Exact two-pass compression; returns the compressed size in bytes
+    public static long compress(Path in, Path out) throws IOException {
+        try (FileChannel src = FileChannel.open(in, StandardOpenOption.READ)) {
+            return compress(src, out, Huffman.buildCode(scale(countAll(src))));
+        }
+    }
+
+    // Skips the counting pass: the table comes from up to sampleBlocks blocks spread over the file,
+    // and every byte value keeps a code in case the sample missed it
+    public static long compressSampled(Path in, Path out, int sampleBlocks) throws IOException {
+        try (FileChannel src = FileChannel.open(in, StandardOpenOption.READ)) {
+            long[] counts = countSample(src, sampleBlocks);
+            for (int s = 0; s < 256; s++) counts[s]++;
+            return compress(src, out, Huffman.buildCode(scale(counts)));
+        }
+    }
+
+    public static void decompress(Path in, Path out) throws IOException {
+        try (InputStream src = Channels.newInputStream(FileChannel.open(in, StandardOpenOption.READ));
+             FileChannel dst = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            BitReader bits = new BitReader(src, BUFFER);
+            HuffmanCode code;
+            try {
+                code = HuffmanCode.readHeader(bits);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(in + ": " + e.getMessage(), e);
+            }
+            long remaining = ((long) bits.read(32) << 32) | (bits.read(32) & 0xFFFFFFFFL);
+            if (bits.exhausted()) throw new EOFException("Truncated Huffman file: " + in);
+            if (remaining < 0) throw new IOException("Negative length in Huffman file " + in + ": " + remaining);
+            if (remaining > 0 && code.maxLength() == 0) throw new IOException("Huffman file " + in + " has no code");
+            HuffmanDecoder decoder = new HuffmanDecoder(code);
+            byte[] chunk = new byte[BUFFER];
+            while (remaining > 0) {
+                int n = (int) Math.min(chunk.length, remaining);
+                decoder.decode(bits, chunk, 0, n);
+                // Past the end the reader supplies zero bits; stop before they reach the output
+                if (bits.exhausted()) throw new EOFException("Truncated Huffman file: " + in);
+                ByteBuffer buf = ByteBuffer.wrap(chunk, 0, n);
+                while (buf.hasRemaining()) dst.write(buf);
+                remaining -= n;
+            }
+        }
+    }
+
+    private static long compress(FileChannel src, Path out, HuffmanCode code) throws IOException {
+        int[] codes = code.codes;
+        int[] lengths = code.lengths;
+        long size = src.size();
+        try (OutputStream dst = Channels.newOutputStream(FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+            BitWriter bits = new BitWriter(dst, BUFFER);
+            code.writeHeader(bits);
+            bits.write((int) (size >>> 32), 32);
+            bits.write((int) size, 32);
+
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER);
+            byte[] chunk = buf.array();
+            long pos = 0;
+            while (pos < size) {
+                buf.clear();
+                int n = src.read(buf, pos);
+                if (n < 0) break;
+                for (int i = 0; i < n; i++) {
+                    int b = chunk[i] & 0xFF;
+                    if (lengths.length <= b || lengths[b] == 0) {
+                        throw new IllegalStateException("File changed since the histogram pass (byte " + b + ")");
+                    }
+                    bits.write(codes[b], lengths[b]);
+                }
+                pos += n;
+            }
+            bits.finish();
+            return (bits.bitLength() + 7) >>> 3;
+        }
+    }
+
+    private static long[] countAll(FileChannel src) throws IOException {
+        long[] counts = new long[256];
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER);
+        long pos = 0;
+        int n;
+        while ((n = src.read(buf.clear(), pos)) > 0) {
+            add(counts, Histogram.count(buf.array(), 0, n));
+            pos += n;
+        }
+        return counts;
+    }
+
+    private static long[] countSample(FileChannel src, int sampleBlocks) throws IOException {
+        long[] counts = new long[256];
+        long size = src.size();
+        long blocks = Math.max(1, size / SAMPLE_BLOCK);
+        long stride = Math.max(1, blocks / Math.max(1, sampleBlocks));
+        ByteBuffer buf = ByteBuffer.allocate(SAMPLE_BLOCK);
+        for (long b = 0; b < blocks; b += stride) {
+            int n = src.read(buf.clear(), b * SAMPLE_BLOCK);
+            if (n <= 0) break;
+            add(counts, Histogram.count(buf.array(), 0, n));
+        }
+        return counts;
+    }
+
+    private static void add(long[] total, int[] counts) {
+        for (int s = 0; s < counts.length; s++) total[s] += counts[s];
+    }
+
+    // Tree weights are ints; halve counts (keeping seen bytes at least 1) until the total fits
+    static int[] scale(long[] counts) {
+        long total = 0;
+        for (long c : counts) total += c;
+        int shift = 0;
+        while ((total >>> shift) >= (1L << 30)) shift++;
+        int[] freq = new int[counts.length];
+        for (int s = 0; s < counts.length; s++) {
+            if (counts[s] > 0) freq[s] = (int) Math.max(1, counts[s] >>> shift);
+        }
+        return freq;
+    }
+}
@@ -0,0 +1,88 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// Huffman tree as parallel int arrays. Nodes 0..leaves-1 are the leaves in ascending weight order,
+// merged nodes follow in creation order, so the root is the last node and every parent comes after
+// its children. Built with the two-queue method: after one sort, the cheapest pair is always at the
+// head of either the leaf queue or the (already ascending) queue of merged nodes.
+public class HuffmanTree {
+
+    public final int leaves;
+    public final int[] symbol;     // leaf node -> symbol
+    public final int[] freq;       // node weight
+    public final int[] left;       // -1 for leaves
+    public final int[] right;
+    public final int[] parent;     // -1 for the root
+    public final int root;
+
+    private HuffmanTree(int leaves) {
+        int nodes = Math.max(1, 2 * leaves - 1);
+        this.leaves = leaves;
+        this.symbol = new int[leaves];
+        this.freq = new int[nodes];
+        this.left = new int[nodes];
+        this.right = new int[nodes];
+        this.parent = new int[nodes];
+        this.root = nodes - 1;
+    }
+
+    // Tree over the symbols with a non-zero count; an empty histogram gives a tree with no leaves
+    public static HuffmanTree build(int[] hist) {
+        int n = 0;
+        for (int f : hist) if (f > 0) n++;
+        HuffmanTree tree = new HuffmanTree(n);
+        if (n == 0) return tree;
+
+        long[] sorted = new long[n];
+        for (int s = 0, i = 0; s < hist.length; s++) {
+            if (hist[s] > 0) sorted[i++] = ((long) hist[s] << 32) | s;
+        }
+        Arrays.sort(sorted);
+        int[] freq = tree.freq;
+        for (int i = 0; i < n; i++) {
+            tree.symbol[i] = (int) sorted[i];
+            freq[i] = (int) (sorted[i] >>> 32);
+        }
+        Arrays.fill(tree.left, -1);
+        Arrays.fill(tree.right, -1);
+        tree.parent[tree.root] = -1;
+
+        int leafHead = 0;       // next unmerged leaf
+        int nodeHead = n;       // next unmerged merged node
+        for (int next = n; next < 2 * n - 1; next++) {
+            int a = (nodeHead >= next || (leafHead < n && freq[leafHead] <= freq[nodeHead])) ? leafHead++ : nodeHead++;
+            int b = (nodeHead >= next || (leafHead < n && freq[leafHead] <= freq[nodeHead])) ? leafHead++ : nodeHead++;
+            tree.left[next] = a;
+            tree.right[next] = b;
+            tree.parent[a] = next;
+            tree.parent[b] = next;
+            freq[next] = freq[a] + freq[b];
+        }
+        return tree;
+    }
+
+    // Depth of every node, filled root-down since parents always follow their children
+    public int[] depths() {
+        int[] depth = new int[freq.length];
+        for (int i = root - 1; i >= 0; i--) depth[i] = depth[parent[i]] + 1;
+        return depth;
+    }
+
+    // Code length per symbol; a lone symbol still gets a 1-bit code
+    public int[] codeLengths(int alphabetSize) {
+        int[] lengths = new int[alphabetSize];
+        int[] depth = depths();
+        for (int i = 0; i < leaves; i++) lengths[symbol[i]] = Math.max(1, depth[i]);
+        return lengths;
+    }
+
+    // Tree-path codes per node (left = 0, right = 1), for display; depth is bounded well below 64 for int weights
+    public long[] pathCodes() {
+        long[] code = new long[freq.length];
+        for (int i = root - 1; i >= 0; i--) {
+            code[i] = (code[parent[i]] << 1) | (right[parent[i]] == i ? 1 : 0);
+        }
+        return code;
+    }
+}
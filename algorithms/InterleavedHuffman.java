@@ -0,0 +1,95 @@
+package algorithms;
+
+// Four-stream Huffman layout. The text is cut into four contiguous segments sharing one code table,
+// each written to its own byte-aligned bitstream. The decoder keeps four independent BitReaders
+// and takes one symbol from each per iteration, so the CPU can overlap four lookup chains instead
+// of waiting on one.
+// Layout: code-length header, 32-bit symbol count, byte lengths of streams 0-2 (32 bits each),
+// zero padding to a byte boundary, then the four streams.
+public class InterleavedHuffman {
+
+    public static final int STREAMS = 4;
+
+    public static byte[] encode(String text) {
+        int n = text.length();
+        int[] freq = n == 0 ? new int[0] : Histogram.count(text);
+        HuffmanCode code = Huffman.buildCode(Histogram.trim(freq));
+        int[] codes = code.codes;
+        int[] lengths = code.lengths;
+
+        int segment = (n + STREAMS - 1) / STREAMS;
+        byte[][] streams = new byte[STREAMS][];
+        for (int s = 0; s < STREAMS; s++) {
+            int from = Math.min(n, s * segment);
+            int to = Math.min(n, from + segment);
+            BitWriter out = new BitWriter(Math.max(8, (to - from) / 2));
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                out.write(codes[c], lengths[c]);
+            }
+            streams[s] = out.toByteArray();
+        }
+
+        BitWriter head = new BitWriter();
+        code.writeHeader(head);
+        head.write(n, 32);
+        for (int s = 0; s < STREAMS - 1; s++) head.write(streams[s].length, 32);
+        byte[] header = head.toByteArray();
+
+        int size = header.length;
+        for (byte[] stream : streams) size += stream.length;
+        byte[] out = new byte[size];
+        System.arraycopy(header, 0, out, 0, header.length);
+        int pos = header.length;
+        for (byte[] stream : streams) {
+            System.arraycopy(stream, 0, out, pos, stream.length);
+            pos += stream.length;
+        }
+        return out;
+    }
+
+    public static String decode(byte[] data) {
+        if (data == null || data.length == 0) return "";
+        BitReader head = new BitReader(data);
+        HuffmanCode code = HuffmanCode.readHeader(head);
+        int n = Huffman.readCount(head, code);
+        int[] offset = new int[STREAMS + 1];
+        int[] size = new int[STREAMS];
+        for (int s = 0; s < STREAMS - 1; s++) size[s] = head.read(32);
+        Huffman.checkComplete(head);
+        offset[0] = (int) ((head.bitPosition() + 7) >>> 3);
+        for (int s = 0; s < STREAMS - 1; s++) {
+            if (size[s] < 0) throw new IllegalArgumentException("Negative Huffman stream length: " + size[s]);
+            offset[s + 1] = (int) Math.min(data.length + 1L, (long) offset[s] + size[s]);
+        }
+        if (offset[STREAMS - 1] > data.length) throw new IllegalArgumentException("Truncated Huffman stream");
+        size[STREAMS - 1] = data.length - offset[STREAMS - 1];
+
+        char[] out = new char[n];
+        if (n == 0) return "";
+        HuffmanDecoder decoder = new HuffmanDecoder(code);
+        BitReader in0 = new BitReader(data, offset[0], size[0]);
+        BitReader in1 = new BitReader(data, offset[1], size[1]);
+        BitReader in2 = new BitReader(data, offset[2], size[2]);
+        BitReader in3 = new BitReader(data, offset[3], size[3]);
+
+        int segment = (n + STREAMS - 1) / STREAMS;
+        int p0 = 0, p1 = segment, p2 = 2 * segment, p3 = 3 * segment;
+        // The last segment is the shortest; decode all four in lockstep for its length
+        int last = Math.max(0, n - p3);
+        for (int i = 0; i < last; i++) {
+            out[p0++] = (char) decoder.decodeSymbol(in0);
+            out[p1++] = (char) decoder.decodeSymbol(in1);
+            out[p2++] = (char) decoder.decodeSymbol(in2);
+            out[p3++] = (char) decoder.decodeSymbol(in3);
+        }
+        decoder.decode(in0, out, p0, Math.min(n, segment) - p0);
+        decoder.decode(in1, out, p1, Math.max(0, Math.min(n, 2 * segment) - p1));
+        decoder.decode(in2, out, p2, Math.max(0, Math.min(n, 3 * segment) - p2));
+        Huffman.checkComplete(in0);
+        Huffman.checkComplete(in1);
+        Huffman.checkComplete(in2);
+        Huffman.checkComplete(in3);
+        return new String(out);
+    }
+}
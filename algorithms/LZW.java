@@ -1,12 +1,27 @@
 package algorithms;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class LZW {
 
+    // What the encoder does once every code up to the maximum width is taken
+    public enum Policy {
+        RESET,              // send CLEAR and start over
+        RESET_ON_RATIO,     // keep the full dictionary while the ratio holds, CLEAR once it drops
+        FREEZE,             // keep the full dictionary for the rest of the stream
+        LRU                 // reuse the code of the least recently used leaf entry
+    }
+
+    // Widest code encode() uses unless told otherwise (64K-entry dictionary, as in Unix compress)
+    public static final int DEFAULT_MAX_BITS = 16;
+    // compress() lists have no CLEAR code, so their dictionary is frozen once this many codes exist
+    public static final int COMPRESS_MAX_CODE = 1 << DEFAULT_MAX_BITS;
+
     // Teaching step class
     public static class TeachingStep {
-        public int inputPos;                // Current position in input
+        public int inputPos;                // Current position in input (char holding the byte being read)
         public String processedPart;        // Text already output (coded)
         public String currentW;             // Current matched substring w
         public String currentC;             // Current next char c
@@ -18,152 +33,325 @@ public class LZW {
     }
 
     public static class TeachingResult {
-        public List<TeachingStep> steps;
+        public List<TeachingStep> steps;    // built on demand from the trace
         public List<Integer> compressed;
         public String input;
+        public TeachingTrace trace;
     }
 
-    // Teaching mode compression - step-wise
-    public static TeachingResult compressWithTeachingSteps(String input) {
-        TeachingResult result = new TeachingResult();
-        result.steps = new ArrayList<>();
-        result.compressed = new ArrayList<>();
-        result.input = input;
+    // Compact record of a teaching run over the UTF-8 bytes of the input, the same alphabet
+    // compress() and decompress() use: one int per step (the code output, or -1 when the match was
+    // extended), plus the output count, match length and char position before every
+    // CHECKPOINT_INTERVAL-th step. A step is rebuilt by replaying at most CHECKPOINT_INTERVAL events.
+    public static class TeachingTrace {
+        public static final int CHECKPOINT_INTERVAL = 256;
 
-        // Start dictionary with ASCII 0..255 (standard)
-        LinkedHashMap<String,Integer> dictionary = new LinkedHashMap<>();
-        int dictSize = 256;
-        for (int i = 0; i < 256; i++) {
-            dictionary.put("" + (char) i, i);
+        private final byte[] bytes;
+        private final List<Integer> output;
+        private final int[] events;
+        private final int size;
+        private final int[] checkpointOutputs;
+        private final int[] checkpointMatch;
+        private final int[] checkpointChars;
+
+        private TeachingTrace(String input) {
+            bytes = input.getBytes(StandardCharsets.UTF_8);
+            int n = bytes.length;
+            events = new int[n + 1];
+            checkpointOutputs = new int[n / CHECKPOINT_INTERVAL + 1];
+            checkpointMatch = new int[n / CHECKPOINT_INTERVAL + 1];
+            checkpointChars = new int[n / CHECKPOINT_INTERVAL + 1];
+            output = new ArrayList<>();
+
+            LZWDictionary dictionary = new LZWDictionary(8, Math.min(n, 1 << 16));
+            int dictSize = 256;
+            int w = -1;
+            int matchLen = 0;
+            int chars = 0;
+            for (int pos = 0; pos < n; pos++) {
+                if (pos % CHECKPOINT_INTERVAL == 0) {
+                    checkpointOutputs[pos / CHECKPOINT_INTERVAL] = output.size();
+                    checkpointMatch[pos / CHECKPOINT_INTERVAL] = matchLen;
+                    checkpointChars[pos / CHECKPOINT_INTERVAL] = chars;
+                }
+                chars += charsStarting(bytes[pos]);
+                int c = bytes[pos] & 0xFF;
+                int wc = w < 0 ? c : dictionary.get(w, c);
+                if (wc >= 0) {
+                    w = wc;
+                    matchLen++;
+                    events[pos] = -1;
+                } else {
+                    output.add(w);
+                    events[pos] = w;
+                    if (dictSize < COMPRESS_MAX_CODE) dictionary.put(w, c, dictSize++);
+                    w = c;
+                    matchLen = 1;
+                }
+            }
+            // The end-of-input step n starts a checkpoint interval of its own when n is a multiple
+            if (n % CHECKPOINT_INTERVAL == 0) {
+                checkpointOutputs[n / CHECKPOINT_INTERVAL] = output.size();
+                checkpointMatch[n / CHECKPOINT_INTERVAL] = matchLen;
+                checkpointChars[n / CHECKPOINT_INTERVAL] = chars;
+            }
+            if (w >= 0) {
+                output.add(w);
+                events[n] = w;
+                size = n + 1;
+            } else {
+                size = 0;
+            }
         }
 
-        String w = "";
-        List<Integer> output = new ArrayList<>();
+        // UTF-16 chars that start at this UTF-8 byte: none for continuation bytes, two for 4-byte leads
+        private static int charsStarting(byte b) {
+            if ((b & 0xC0) == 0x80) return 0;
+            return (b & 0xF8) == 0xF0 ? 2 : 1;
+        }
+
+        // bytes[from, to) for display: whole UTF-8 sequences as text, cut ones as \xHH
+        private String text(int from, int to) {
+            StringBuilder sb = new StringBuilder(to - from);
+            int i = from;
+            while (i < to) {
+                int b = bytes[i] & 0xFF;
+                int len = b < 0x80 ? 1 : b >= 0xF0 && b < 0xF8 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 0;
+                boolean whole = len > 0 && i + len <= to;
+                for (int k = 1; whole && k < len; k++) whole = (bytes[i + k] & 0xC0) == 0x80;
+                if (whole) {
+                    sb.append(new String(bytes, i, len, StandardCharsets.UTF_8));
+                    i += len;
+                } else {
+                    sb.append(String.format("\\x%02X", b));
+                    i++;
+                }
+            }
+            return sb.toString();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public List<Integer> output() {
+            return output;
+        }
+
+        public TeachingStep step(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Step " + index + " of " + size);
+            int cp = index / CHECKPOINT_INTERVAL;
+            int outputs = checkpointOutputs[cp];
+            int matchLen = checkpointMatch[cp];
+            int chars = checkpointChars[cp];
+            for (int i = cp * CHECKPOINT_INTERVAL; i < index; i++) {
+                chars += charsStarting(bytes[i]);
+                if (events[i] < 0) {
+                    matchLen++;
+                } else {
+                    outputs++;
+                    matchLen = 1;
+                }
+            }
 
-        int pos = 0;
-        while (pos < input.length()) {
-            char c = input.charAt(pos);
-            String wc = w + c;
             TeachingStep step = new TeachingStep();
-            step.inputPos = pos;
-            step.processedPart = input.substring(0, pos - w.length() + Math.max(0, w.length()));
+            int pos = index;
+            String w = text(pos - matchLen, pos);
+            // The char being read; a continuation byte belongs to the char started before it
+            step.inputPos = pos < bytes.length && charsStarting(bytes[pos]) == 0 ? chars - 1 : chars;
             step.currentW = w;
-            step.currentC = String.valueOf(c);
-            step.outputCodes = new ArrayList<>(output);
+            step.outputCodes = output.subList(0, outputs);
             step.addedEntries = new LinkedHashMap<>();
+            step.codeOutput = events[index];
+            if (pos == bytes.length) {
+                step.processedPart = text(0, pos - matchLen);
+                step.currentC = "";
+                step.explanation = "End of input. Output code " + step.codeOutput + " for '" + w + "'. No new dictionary entry added.";
+                return step;
+            }
 
-            if (dictionary.containsKey(wc)) {
-                w = wc;
-                step.codeOutput = -1;
+            String wc = text(pos - matchLen, pos + 1);
+            step.processedPart = text(0, pos);
+            step.currentC = text(pos, pos + 1);
+            if (step.codeOutput < 0) {
                 step.explanation = "Found substring '" + wc + "' in dictionary, extend search.";
-            } else {
-                // Output code for w
-                if (!w.isEmpty()) {
-                    int code = dictionary.get(w);
-                    output.add(code);
-                    step.codeOutput = code;
-                    step.explanation = "Longest match: '" + w + "' → output code " + code + ". ";
-                } else {
-                    step.codeOutput = -1;
-                    step.explanation = "No match for current substring; this shouldn't happen.";
-                }
-                // Add new entry wc
-                dictionary.put(wc, dictSize++);
+            } else if (256 + outputs < COMPRESS_MAX_CODE) {
+                int code = 256 + outputs;
                 step.newEntry = wc;
-                step.addedEntries.put(wc, dictionary.get(wc));
-                step.explanation += "New dictionary entry added: '" + wc + "' with code " + dictionary.get(wc) + ".";
-
-                w = "" + c;
+                step.addedEntries.put(wc, code);
+                step.explanation = "Longest match: '" + w + "' → output code " + step.codeOutput + ". "
+                        + "New dictionary entry added: '" + wc + "' with code " + code + ".";
+            } else {
+                step.explanation = "Longest match: '" + w + "' → output code " + step.codeOutput + ". "
+                        + "Dictionary is full (" + COMPRESS_MAX_CODE + " codes), no new entry added.";
             }
-            result.steps.add(step);
-            pos++;
+            return step;
         }
 
-        // Output code for last w
-        if (!w.isEmpty()) {
-            TeachingStep lastStep = new TeachingStep();
-            lastStep.inputPos = pos;
-            lastStep.processedPart = input.substring(0, input.length() - w.length());
-            lastStep.currentW = w;
-            lastStep.currentC = "";
-            lastStep.outputCodes = new ArrayList<>(output);
-            lastStep.addedEntries = new LinkedHashMap<>();
-            int finalCode = dictionary.get(w);
-            output.add(finalCode);
-            lastStep.codeOutput = finalCode;
-            lastStep.explanation = "End of input. Output code " + finalCode + " for '" + w + "'. No new dictionary entry added.";
-            result.steps.add(lastStep);
+        // List view over the trace; each get() rebuilds that step
+        public List<TeachingStep> steps() {
+            return new AbstractList<TeachingStep>() {
+                @Override
+                public TeachingStep get(int index) {
+                    return step(index);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
         }
+    }
 
-        result.compressed = output;
+    // Teaching mode compression - step-wise, recorded as a TeachingTrace
+    public static TeachingResult compressWithTeachingSteps(String input) {
+        TeachingResult result = new TeachingResult();
+        result.input = input;
+        result.trace = new TeachingTrace(input);
+        result.steps = result.trace.steps();
+        result.compressed = result.trace.output();
         return result;
     }
 
-    // Normal LZW compression (no teaching steps)
+    // Normal LZW compression (no teaching steps) over the UTF-8 bytes of input
     public static List<Integer> compress(String input) {
         if (input == null || input.isEmpty()) return Collections.emptyList();
+        int[] codes = compress(input.getBytes(StandardCharsets.UTF_8));
+        List<Integer> result = new ArrayList<>(codes.length);
+        for (int code : codes) result.add(code);
+        return result;
+    }
 
-        Map<String, Integer> dictionary = new HashMap<>();
+    // Codes 0..255 are the single bytes, and the dictionary stops growing (FREEZE) at
+    // COMPRESS_MAX_CODE entries. The current match is an int code and the dictionary is keyed
+    // by (match, next byte), so nothing is allocated per input byte apart from amortised growth.
+    public static int[] compress(byte[] input) {
+        if (input.length == 0) return new int[0];
+        LZWDictionary dictionary = new LZWDictionary(8, Math.min(input.length, 1 << 16));
+        int[] out = new int[Math.max(16, input.length / 4)];
+        int outSize = 0;
         int dictSize = 256;
-        for (int i = 0; i < 256; i++) {
-            dictionary.put("" + (char) i, i);
-        }
 
-        List<Integer> result = new ArrayList<>();
-        String w = "";
-
-        for (char c : input.toCharArray()) {
-            String wc = w + c;
-            if (dictionary.containsKey(wc)) {
+        int w = input[0] & 0xFF;
+        for (int i = 1; i < input.length; i++) {
+            int c = input[i] & 0xFF;
+            int wc = dictionary.get(w, c);
+            if (wc >= 0) {
                 w = wc;
             } else {
-                result.add(dictionary.get(w));
-                dictionary.put(wc, dictSize++);
-                w = "" + c;
+                if (outSize == out.length) out = Arrays.copyOf(out, outSize * 2);
+                out[outSize++] = w;
+                if (dictSize < COMPRESS_MAX_CODE) dictionary.put(w, c, dictSize++);
+                w = c;
             }
         }
-        if (!w.equals("")) {
-            result.add(dictionary.get(w));
-        }
-        return result;
+        if (outSize == out.length) out = Arrays.copyOf(out, outSize + 1);
+        out[outSize++] = w;
+        return Arrays.copyOf(out, outSize);
     }
 
     public static String decompress(List<Integer> compressed) {
         if (compressed == null || compressed.isEmpty()) return "";
 
-        Map<Integer, String> dictionary = new HashMap<>();
-        int dictSize = 256;
-        for (int i = 0; i < 256; i++) {
-            dictionary.put(i, "" + (char) i);
+        // compress() has no reserved codes and freezes its dictionary at COMPRESS_MAX_CODE
+        LZWDecoder decoder = new LZWDecoder(256, COMPRESS_MAX_CODE);
+        byte[] out = new byte[compressed.size() * 2];
+        int outSize = 0;
+        for (int code : compressed) {
+            int len = decoder.phraseLength(code);
+            if (outSize + len > out.length) out = Arrays.copyOf(out, Math.max(out.length * 2, outSize + len));
+            outSize += decoder.decode(code, out, outSize);
         }
+        return new String(out, 0, outSize, StandardCharsets.UTF_8);
+    }
 
-        String w = "" + (char)(int)compressed.get(0);
-        StringBuilder result = new StringBuilder(w);
+    public static String compressToString(String input) {
+        List<Integer> compressed = compress(input);
+        StringBuilder sb = new StringBuilder(compressed.size() * 4);
+        for (int i = 0; i < compressed.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(compressed.get(i));
+        }
+        return sb.toString();
+    }
 
-        for (int i = 1; i < compressed.size(); i++) {
-            int k = compressed.get(i);
-            String entry;
-            if (dictionary.containsKey(k)) {
-                entry = dictionary.get(k);
-            } else if (k == dictSize) {
-                entry = w + w.charAt(0);
-            } else {
-                throw new IllegalArgumentException("Bad compressed k: " + k);
-            }
-            result.append(entry);
+    // Binary LZW: 1 byte max code width, 1 byte policy, then MSB-first variable-width codes ending in STOP
+    public static byte[] encode(byte[] input) {
+        return encode(input, DEFAULT_MAX_BITS, Policy.RESET);
+    }
+
+    public static byte[] encode(byte[] input, int maxBits) {
+        return encode(input, maxBits, Policy.RESET);
+    }
+
+    public static byte[] encode(byte[] input, int maxBits, Policy policy) {
+        BitWriter out = new BitWriter(input.length / 2 + 16);
+        LZWEncoder encoder = start(out, maxBits, policy, input.length);
+        encoder.write(input, 0, input.length);
+        encoder.finish();
+        return out.toByteArray();
+    }
+
+    public static ByteBuffer encode(ByteBuffer input, int maxBits) {
+        return encode(input, maxBits, Policy.RESET);
+    }
 
-            dictionary.put(dictSize++, w + entry.charAt(0));
-            w = entry;
+    public static ByteBuffer encode(ByteBuffer input, int maxBits, Policy policy) {
+        BitWriter out = new BitWriter(input.remaining() / 2 + 16);
+        LZWEncoder encoder = start(out, maxBits, policy, input.remaining());
+        while (input.hasRemaining()) encoder.write(input.get());
+        encoder.finish();
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    static LZWEncoder start(BitWriter out, int maxBits, Policy policy, int length) {
+        LZWEncoder encoder = new LZWEncoder(out, maxBits, policy, length);
+        out.write(maxBits, 8);
+        out.write(policy.ordinal(), 8);
+        return encoder;
+    }
+
+    public static ByteBuffer decode(ByteBuffer input) {
+        byte[] data;
+        if (input.hasArray()) {
+            data = Arrays.copyOfRange(input.array(), input.arrayOffset() + input.position(),
+                    input.arrayOffset() + input.limit());
+        } else {
+            data = new byte[input.remaining()];
+            input.duplicate().get(data);
         }
-        return result.toString();
+        input.position(input.limit());
+        return ByteBuffer.wrap(decode(data));
     }
 
-    public static String compressToString(String input) {
-        List<Integer> compressed = compress(input);
-        if (compressed.isEmpty()) return "";
-        return compressed.stream()
-                .map(String::valueOf)
-                .reduce((a, b) -> a + "," + b).get();
+    // Reads the width and policy from the stream header, so any encode() output decodes as is
+    public static byte[] decode(byte[] data) {
+        BitReader in = new BitReader(data);
+        int maxBits = in.read(8);
+        int policy = in.read(8);
+        if (in.exhausted()) throw new IllegalArgumentException("Truncated LZW stream");
+        if (maxBits < LZWEncoder.MIN_BITS || maxBits > LZWEncoder.MAX_BITS || policy >= Policy.values().length) {
+            throw new IllegalArgumentException("Bad LZW header: max width " + maxBits + ", policy " + policy);
+        }
+        LZWDecoder decoder = new LZWDecoder(LZWEncoder.FIRST_CODE, 1 << maxBits, Policy.values()[policy]);
+        byte[] out = new byte[Math.max(16, data.length * 2)];
+        int outSize = 0;
+        while (true) {
+            int code = in.read(decoder.codeWidth());
+            // Past the end the reader returns zeros, and 0 is a valid code: without this a stream
+            // missing its STOP would decode zero bytes forever
+            if (in.exhausted()) throw new IllegalArgumentException("Truncated LZW stream");
+            if (code == LZWEncoder.STOP) break;
+            if (code == LZWEncoder.CLEAR) {
+                decoder.reset();
+                continue;
+            }
+            int len = decoder.phraseLength(code);
+            if (outSize + len > out.length) out = Arrays.copyOf(out, Math.max(out.length * 2, outSize + len));
+            outSize += decoder.decode(code, out, outSize);
+        }
+        return Arrays.copyOf(out, outSize);
     }
 
     public static List<Integer> decompressFromString(String compressedString) {
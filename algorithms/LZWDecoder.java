@@ -0,0 +1,119 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// LZW dictionary for decoding, one (prefix code, last byte, length) triple per entry in primitive
+// arrays. A phrase is written straight into the output by walking its prefix chain backwards, so
+// memory is linear in the number of codes and decoding allocates nothing per code.
+public class LZWDecoder {
+
+    private final int firstCode;
+    private final int maxCode;
+    private int[] prefix;
+    private byte[] suffix;
+    private int[] length;
+    private int next;
+    private int prev = -1;
+    private final LZWRecency recency;   // LRU only
+
+    // Codes below 256 are single bytes, entries are added from firstCode up to (excluding) maxCode
+    public LZWDecoder(int firstCode, int maxCode) {
+        this(firstCode, maxCode, LZW.Policy.RESET);
+    }
+
+    // Only LRU changes decoding; the reset policies reach the decoder as CLEAR codes and a full
+    // dictionary is frozen until then
+    public LZWDecoder(int firstCode, int maxCode, LZW.Policy policy) {
+        this.firstCode = firstCode;
+        this.maxCode = maxCode;
+        int capacity = Math.min(maxCode, 1 << 12);
+        prefix = new int[capacity];
+        suffix = new byte[capacity];
+        length = new int[capacity];
+        for (int i = 0; i < 256; i++) {
+            suffix[i] = (byte) i;
+            length[i] = 1;
+        }
+        next = firstCode;
+        if (policy == LZW.Policy.LRU) {
+            prefix = Arrays.copyOf(prefix, maxCode);
+            suffix = Arrays.copyOf(suffix, maxCode);
+            length = Arrays.copyOf(length, maxCode);
+            recency = new LZWRecency(firstCode, maxCode);
+        } else {
+            recency = null;
+        }
+    }
+
+    // Width of the next code in a LZWEncoder stream: the encoder has already added the entry
+    // this decoder adds when that code arrives
+    public int codeWidth() {
+        return LZWEncoder.width(prev >= 0 && next < maxCode ? next + 1 : next);
+    }
+
+    public void reset() {
+        next = firstCode;
+        prev = -1;
+    }
+
+    // Slot the entry for the previous code goes into: the next free code, or with LRU on a full
+    // dictionary the leaf the encoder evicted; -1 if nothing is added
+    private int pendingSlot() {
+        if (prev < 0) return -1;
+        if (next < maxCode) return next;
+        return recency != null ? recency.victim(prev) : -1;
+    }
+
+    // Length of the phrase for code
+    public int phraseLength(int code) {
+        int slot = pendingSlot();
+        if (code == slot) return length[prev] + 1;
+        if (code < 256 || (code >= firstCode && code < next)) return length[code];
+        throw new IllegalArgumentException("Bad compressed code: " + code);
+    }
+
+    // Writes the phrase for code at out[pos], adds the entry the encoder made for the previous code,
+    // and returns the phrase length
+    public int decode(int code, byte[] out, int pos) {
+        int len = phraseLength(code);
+        int slot = pendingSlot();
+        if (code == slot) {
+            // KwKwK: the phrase is the previous one plus its own first byte
+            write(prev, out, pos, len - 1);
+            out[pos + len - 1] = out[pos];
+        } else {
+            write(code, out, pos, len);
+        }
+        if (slot >= 0) {
+            if (slot == next) {
+                if (next == prefix.length) grow();
+                next++;
+            } else {
+                recency.evict(slot);
+            }
+            prefix[slot] = prev;
+            suffix[slot] = out[pos];
+            length[slot] = length[prev] + 1;
+            if (recency != null) recency.added(slot, prev, out[pos] & 0xFF);
+        }
+        if (recency != null) recency.used(code);
+        prev = code;
+        return len;
+    }
+
+    private void write(int code, byte[] out, int pos, int len) {
+        int p = pos + len - 1;
+        while (code >= 256) {
+            out[p--] = suffix[code];
+            code = prefix[code];
+        }
+        out[p] = (byte) code;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(maxCode, prefix.length * 2L);
+        prefix = Arrays.copyOf(prefix, capacity);
+        suffix = Arrays.copyOf(suffix, capacity);
+        length = Arrays.copyOf(length, capacity);
+    }
+}
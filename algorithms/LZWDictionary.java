@@ -0,0 +1,99 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// Open-addressing map from (prefix code, next symbol) to code. The pair is packed into one long key,
+// (prefix << symbolBits) | symbol, and probed linearly, so lookups and inserts allocate nothing.
+// Single-symbol codes are implied by the symbol value and never stored.
+public class LZWDictionary {
+
+    private final int symbolBits;
+    private long[] keys;       // key + 1, 0 marks an empty slot
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LZWDictionary(int symbolBits, int expectedEntries) {
+        this.symbolBits = symbolBits;
+        int capacity = Integer.highestOneBit(Math.max(16, expectedEntries * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // Code for prefix + symbol, or -1
+    public int get(int prefix, int symbol) {
+        long key = key(prefix, symbol);
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == 0) return -1;
+        }
+    }
+
+    public void put(int prefix, int symbol, int code) {
+        if (size * 2 >= keys.length) grow();
+        long key = key(prefix, symbol);
+        int i = slot(key);
+        while (keys[i] != 0 && keys[i] != key) i = (i + 1) & mask;
+        if (keys[i] == 0) size++;
+        keys[i] = key;
+        values[i] = code;
+    }
+
+    // Removes prefix + symbol, shifting later entries of its probe run back so lookups still find them
+    public void remove(int prefix, int symbol) {
+        long key = key(prefix, symbol);
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == 0) return;
+            i = (i + 1) & mask;
+        }
+        keys[i] = 0;
+        size--;
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            // Move the entry back unless its home slot lies cyclically in (i, j]
+            boolean stays = i <= j ? (home > i && home <= j) : (home > i || home <= j);
+            if (!stays) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                keys[j] = 0;
+                i = j;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    private long key(int prefix, int symbol) {
+        return (((long) prefix << symbolBits) | symbol) + 1;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key == 0) continue;
+            int i = slot(key);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = key;
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package algorithms;
+
+// Incremental LZW encoder writing variable-width codes to a BitWriter. Codes start at 9 bits and
+// widen as the dictionary grows, up to maxBits. Code 256 (CLEAR) tells the decoder the dictionary
+// was reset, 257 (STOP) ends the stream, new entries start at 258. What happens once all
+// 2^maxBits codes are taken is chosen by the LZW.Policy.
+public class LZWEncoder {
+
+    public static final int CLEAR = 256;
+    public static final int STOP = 257;
+    public static final int FIRST_CODE = 258;
+    public static final int MIN_BITS = 9;
+    public static final int MAX_BITS = 24;
+    // Input bytes between compression ratio checks for RESET_ON_RATIO, as in Unix compress
+    public static final int CHECK_INTERVAL = 10000;
+
+    private final BitWriter out;
+    private final int maxCode;
+    private final LZWDictionary dictionary;
+    private final LZW.Policy policy;
+    private final LZWRecency recency;   // LRU only
+    private int nextCode = FIRST_CODE;
+    private int w = -1;        // code of the current match, -1 before the first byte
+
+    // RESET_ON_RATIO bookkeeping since the last reset
+    private long bytesIn;
+    private long bitsAtReset;
+    private long checkpoint = CHECK_INTERVAL;
+    private long bestRatio;
+
+    public LZWEncoder(BitWriter out, int maxBits) {
+        this(out, maxBits, LZW.Policy.RESET);
+    }
+
+    // Input length unknown: the dictionary starts small and grows with the stream
+    public LZWEncoder(BitWriter out, int maxBits, LZW.Policy policy) {
+        this(out, maxBits, policy, 1 << 12);
+    }
+
+    // expectedInput sizes the dictionary up front; n input bytes add fewer than n entries
+    public LZWEncoder(BitWriter out, int maxBits, LZW.Policy policy, int expectedInput) {
+        if (maxBits < MIN_BITS || maxBits > MAX_BITS) {
+            throw new IllegalArgumentException("maxBits must be in " + MIN_BITS + ".." + MAX_BITS + ": " + maxBits);
+        }
+        this.out = out;
+        this.maxCode = 1 << maxBits;
+        this.dictionary = new LZWDictionary(8, Math.min(Math.min(maxCode, 1 << 16), expectedInput));
+        this.policy = policy;
+        this.recency = policy == LZW.Policy.LRU ? new LZWRecency(FIRST_CODE, maxCode) : null;
+    }
+
+    public void write(int b) {
+        int c = b & 0xFF;
+        bytesIn++;
+        if (w < 0) {
+            w = c;
+            return;
+        }
+        int wc = dictionary.get(w, c);
+        if (wc >= 0) {
+            w = wc;
+            return;
+        }
+        emit(w);
+        if (recency != null) recency.used(w);
+        if (nextCode < maxCode) {
+            dictionary.put(w, c, nextCode);
+            if (recency != null) recency.added(nextCode, w, c);
+            nextCode++;
+        } else {
+            full(c);
+        }
+        w = c;
+    }
+
+    private void full(int c) {
+        switch (policy) {
+            case RESET:
+                reset();
+                break;
+            case RESET_ON_RATIO:
+                // Dictionary stays frozen while the ratio keeps improving, is dropped once it falls
+                if (bytesIn >= checkpoint) {
+                    checkpoint = bytesIn + CHECK_INTERVAL;
+                    long ratio = (bytesIn << 16) / Math.max(1, out.bitLength() - bitsAtReset);
+                    if (ratio > bestRatio) {
+                        bestRatio = ratio;
+                    } else {
+                        reset();
+                    }
+                }
+                break;
+            case FREEZE:
+                break;
+            case LRU:
+                int victim = recency.victim(w);
+                if (victim < 0) break;
+                recency.evict(victim);
+                dictionary.remove(recency.prefixOf(victim), recency.symbolOf(victim));
+                dictionary.put(w, c, victim);
+                recency.added(victim, w, c);
+                break;
+        }
+    }
+
+    private void reset() {
+        emit(CLEAR);
+        dictionary.clear();
+        nextCode = FIRST_CODE;
+        bytesIn = 0;
+        bitsAtReset = out.bitLength();
+        checkpoint = CHECK_INTERVAL;
+        bestRatio = 0;
+    }
+
+    public void write(byte[] b, int off, int len) {
+        for (int i = off; i < off + len; i++) write(b[i]);
+    }
+
+    // Emits the pending match and STOP. The decoder sizes each code as if the entry for the previous
+    // code were already added, so STOP is sized the same way.
+    public void finish() {
+        if (w >= 0) {
+            emit(w);
+            if (nextCode < maxCode) nextCode++;
+            w = -1;
+        }
+        emit(STOP);
+    }
+
+    private void emit(int code) {
+        out.write(code, width(nextCode));
+    }
+
+    // Bits needed for every code below nextCode
+    static int width(int nextCode) {
+        return Math.max(MIN_BITS, 32 - Integer.numberOfLeadingZeros(nextCode - 1));
+    }
+}
@@ -0,0 +1,102 @@
+package algorithms;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+// Decompresses an LZW.encode() stream as it is read. Codes are pulled from the wrapped stream only
+// when the current phrase has been handed out, so output starts before the input is complete.
+public class LZWInputStream extends FilterInputStream {
+
+    private final BitReader bits;
+    private LZWDecoder decoder;
+    private byte[] phrase = new byte[1 << 12];
+    private int phrasePos;
+    private int phraseLen;
+    private boolean done;
+
+    public LZWInputStream(InputStream in) {
+        super(in);
+        bits = new BitReader(in, LZWOutputStream.BUFFER);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (phrasePos == phraseLen && !fill()) return -1;
+        return phrase[phrasePos++] & 0xFF;
+    }
+
+    // Blocks only until some output is available, like InflaterInputStream: once n > 0, a phrase
+    // whose code is not fully buffered is left for the next call. A CLEAR is followed by a 9-bit
+    // code, so enough is buffered when both fit
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        int n = 0;
+        while (n < len) {
+            if (phrasePos == phraseLen) {
+                if (n > 0 && bits.wouldBlock(decoder.codeWidth() + LZWEncoder.MIN_BITS)) break;
+                if (!fill()) break;
+            }
+            int chunk = Math.min(len - n, phraseLen - phrasePos);
+            System.arraycopy(phrase, phrasePos, b, off + n, chunk);
+            phrasePos += chunk;
+            n += chunk;
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && (phrasePos < phraseLen || fill())) {
+            int chunk = (int) Math.min(n - skipped, phraseLen - phrasePos);
+            phrasePos += chunk;
+            skipped += chunk;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return phraseLen - phrasePos;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    // Decodes the next phrase into the buffer; false at STOP
+    private boolean fill() throws IOException {
+        if (done) return false;
+        if (decoder == null) {
+            int maxBits = bits.read(8);
+            int policy = bits.read(8);
+            if (bits.exhausted()) throw new EOFException("Truncated LZW stream");
+            if (maxBits < LZWEncoder.MIN_BITS || maxBits > LZWEncoder.MAX_BITS || policy >= LZW.Policy.values().length) {
+                throw new IllegalArgumentException("Bad LZW header: max width " + maxBits + ", policy " + policy);
+            }
+            decoder = new LZWDecoder(LZWEncoder.FIRST_CODE, 1 << maxBits, LZW.Policy.values()[policy]);
+        }
+        while (true) {
+            int code = bits.read(decoder.codeWidth());
+            if (bits.exhausted()) throw new EOFException("Truncated LZW stream");
+            if (code == LZWEncoder.STOP) {
+                done = true;
+                return false;
+            }
+            if (code == LZWEncoder.CLEAR) {
+                decoder.reset();
+                continue;
+            }
+            int len = decoder.phraseLength(code);
+            if (len > phrase.length) phrase = Arrays.copyOf(phrase, Math.max(len, phrase.length * 2));
+            phraseLen = decoder.decode(code, phrase, 0);
+            phrasePos = 0;
+            return true;
+        }
+    }
+}
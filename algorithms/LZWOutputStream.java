@@ -0,0 +1,53 @@
+package algorithms;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Compresses everything written to it into the LZW.encode() format on the wrapped stream.
+// Memory is the dictionary plus a fixed output buffer; close() writes STOP and closes the target.
+public class LZWOutputStream extends FilterOutputStream {
+
+    public static final int BUFFER = 1 << 16;
+
+    private final BitWriter bits;
+    private final LZWEncoder encoder;
+    private boolean closed;
+
+    public LZWOutputStream(OutputStream out) {
+        this(out, LZW.DEFAULT_MAX_BITS, LZW.Policy.RESET);
+    }
+
+    public LZWOutputStream(OutputStream out, int maxBits, LZW.Policy policy) {
+        super(out);
+        bits = new BitWriter(out, BUFFER);
+        encoder = new LZWEncoder(bits, maxBits, policy);
+        bits.write(maxBits, 8);
+        bits.write(policy.ordinal(), 8);
+    }
+
+    @Override
+    public void write(int b) {
+        encoder.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        encoder.write(b, off, len);
+    }
+
+    // Pushes out every complete code; the current match and a partial byte stay pending
+    @Override
+    public void flush() {
+        bits.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        encoder.finish();
+        bits.finish();
+        out.close();
+    }
+}
@@ -0,0 +1,80 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// Recency order over dictionary codes for the LRU policy, kept identically by encoder and decoder.
+// Only leaves (entries no other entry extends) are listed, so evicting one never breaks a prefix chain.
+class LZWRecency {
+
+    private final int firstCode;
+    private final int[] prefix;
+    private final int[] symbol;
+    private final int[] children;
+    private final int[] older;
+    private final int[] newer;
+    private int oldest = -1;
+    private int newest = -1;
+
+    LZWRecency(int firstCode, int maxCode) {
+        this.firstCode = firstCode;
+        prefix = new int[maxCode];
+        symbol = new int[maxCode];
+        children = new int[maxCode];
+        older = new int[maxCode];
+        newer = new int[maxCode];
+        Arrays.fill(older, -1);
+        Arrays.fill(newer, -1);
+    }
+
+    int prefixOf(int code) {
+        return prefix[code];
+    }
+
+    int symbolOf(int code) {
+        return symbol[code];
+    }
+
+    // A new entry is a leaf and the most recent one; its prefix stops being a leaf
+    void added(int code, int prefixCode, int sym) {
+        prefix[code] = prefixCode;
+        symbol[code] = sym;
+        children[code] = 0;
+        append(code);
+        if (prefixCode >= firstCode && children[prefixCode]++ == 0) unlink(prefixCode);
+    }
+
+    void used(int code) {
+        if (code >= firstCode && children[code] == 0) {
+            unlink(code);
+            append(code);
+        }
+    }
+
+    // Least recently used leaf other than keep, or -1 if there is none
+    int victim(int keep) {
+        if (oldest != keep) return oldest;
+        return newer[oldest];
+    }
+
+    // Takes the victim out of the dictionary structure; its prefix may become a leaf again
+    void evict(int code) {
+        unlink(code);
+        int p = prefix[code];
+        if (p >= firstCode && --children[p] == 0) append(p);
+    }
+
+    private void append(int code) {
+        older[code] = newest;
+        newer[code] = -1;
+        if (newest >= 0) newer[newest] = code; else oldest = code;
+        newest = code;
+    }
+
+    private void unlink(int code) {
+        int o = older[code], n = newer[code];
+        if (o >= 0) newer[o] = n; else oldest = n;
+        if (n >= 0) older[n] = o; else newest = o;
+        older[code] = -1;
+        newer[code] = -1;
+    }
+}
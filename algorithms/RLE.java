@@ -1,9 +1,23 @@
 package algorithms;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class RLE {
 
+    // Binary format: a sequence of tokens, each a varint header (length << 1 | type)
+    // followed by the literal bytes (type 0, length - 1 stored) or the repeated byte
+    // (type 1, length - MIN_REPEAT stored)
+    public static final int MIN_REPEAT = 3;
+    public static final int MAX_LITERAL = 8192;
+    // Literal tails up to this length have a one-byte header, so a 3-byte run still pays for itself
+    private static final int SHORT_LITERAL = 64;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
     // Compress input string using Run Length Encoding
     public static String compress(String input) {
         if (input == null || input.isEmpty()) return "";
@@ -35,28 +49,218 @@ public class RLE {
     public static String decompress(String input) {
         if (input == null || input.isEmpty()) return "";
 
-        StringBuilder result = new StringBuilder();
+        // First pass measures the output exactly, second fills it one run at a time
+        char[] result = new char[expand(input, null)];
+        expand(input, result);
+        return new String(result);
+    }
 
+    // Walks the <char><count> pairs, filling out when given; returns the decoded length
+    private static int expand(String input, char[] out) {
+        long size = 0;
         int i = 0;
         while (i < input.length()) {
             char ch = input.charAt(i);
             i++;
 
-            // Read number after character (can be multi-digit)
-            StringBuilder countStr = new StringBuilder();
-            while (i < input.length() && Character.isDigit(input.charAt(i))) {
-                countStr.append(input.charAt(i));
+            // Read number after character (can be multi-digit); a missing count means 1
+            long count = 0;
+            int digitsStart = i;
+            int digit;
+            while (i < input.length() && (digit = Character.digit(input.charAt(i), 10)) >= 0) {
+                count = Math.min(count * 10 + digit, Integer.MAX_VALUE + 1L);
                 i++;
             }
+            if (i == digitsStart) count = 1;
+            if (size + count > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("RLE output exceeds 2 GB");
+
+            if (out != null) Arrays.fill(out, (int) size, (int) (size + count), ch);
+            size += count;
+        }
+        return (int) size;
+    }
 
-            int count = countStr.length() > 0 ? Integer.parseInt(countStr.toString()) : 1;
+    // Worst case is all literals: at most two header bytes per MAX_LITERAL chunk
+    public static int maxEncodedLength(int length) {
+        return length + 2 * (length / MAX_LITERAL + 1);
+    }
+
+    public static byte[] encode(byte[] input) {
+        ByteBuffer out = ByteBuffer.allocate(maxEncodedLength(input.length));
+        encode(ByteBuffer.wrap(input), out);
+        return Arrays.copyOf(out.array(), out.position());
+    }
 
-            // Append character count times
-            for (int j = 0; j < count; j++) {
-                result.append(ch);
+    public static ByteBuffer encode(ByteBuffer input) {
+        ByteBuffer out = ByteBuffer.allocate(maxEncodedLength(input.remaining()));
+        encode(input, out);
+        out.flip();
+        return out;
+    }
+
+    // Encodes input's remaining bytes into out, which needs maxEncodedLength(input.remaining()) room.
+    // Reads in place, so direct and mapped buffers are never copied onto the heap
+    public static void encode(ByteBuffer input, ByteBuffer out) {
+        // The scanners read words little-endian whatever order the caller's buffer uses
+        ByteBuffer src = input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int end = input.limit();
+        int literalStart = input.position();
+        int i = literalStart;
+        while ((i = nextRun(src, i, end)) < end) {
+            int j = runEnd(src, i, end);
+            int run = j - i;
+            // A run of exactly MIN_REPEAT only breaks a literal whose header it cannot grow
+            if (run > MIN_REPEAT || (i - literalStart) % MAX_LITERAL <= SHORT_LITERAL) {
+                writeLiterals(src, literalStart, i, out);
+                writeVarint(out, (run - MIN_REPEAT) << 1 | 1);
+                out.put(src.get(i));
+                literalStart = j;
             }
+            i = j;
+        }
+        writeLiterals(src, literalStart, end, out);
+        input.position(end);
+    }
+
+    // Start of the first run of MIN_REPEAT equal bytes at or after from, or end.
+    // Eight bytes per step: byte k of w ^ (w >>> 8) is zero when bytes k and k + 1 match,
+    // so a zero in both k and k + 1 of that marks three in a row
+    static int nextRun(ByteBuffer in, int from, int end) {
+        int i = from;
+        while (i + 8 <= end) {
+            long w = in.getLong(i);
+            long eq = w ^ (w >>> 8);
+            long pairs = eq | (eq >>> 8) | 0xFFFF000000000000L;
+            long zero = (pairs - ONES) & ~pairs & HIGHS;
+            if (zero != 0) return i + (Long.numberOfTrailingZeros(zero) >>> 3);
+            i += 6;
+        }
+        // Scalar fallback for the last few bytes
+        for (; i + MIN_REPEAT <= end; i++) {
+            byte b = in.get(i);
+            if (in.get(i + 1) == b && in.get(i + 2) == b) return i;
+        }
+        return end;
+    }
+
+    // End of the run starting at from, comparing eight bytes at a time against the repeated byte
+    static int runEnd(ByteBuffer in, int from, int end) {
+        byte b = in.get(from);
+        long pattern = (b & 0xFFL) * ONES;
+        int i = from + 1;
+        while (i + 8 <= end) {
+            long diff = in.getLong(i) ^ pattern;
+            if (diff != 0) return i + (Long.numberOfTrailingZeros(diff) >>> 3);
+            i += 8;
+        }
+        while (i < end && in.get(i) == b) i++;
+        return i;
+    }
+
+    private static void writeLiterals(ByteBuffer input, int from, int to, ByteBuffer out) {
+        ByteBuffer src = input.duplicate();
+        while (from < to) {
+            int len = Math.min(to - from, MAX_LITERAL);
+            writeVarint(out, (len - 1) << 1);
+            src.limit(from + len);
+            src.position(from);
+            out.put(src);
+            from += len;
+        }
+    }
+
+    // Unsigned LEB128, so a (length << 1) header past 2^31 still round-trips
+    private static void writeVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!in.hasRemaining()) throw new IllegalArgumentException("Truncated RLE header");
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("RLE header longer than 5 bytes");
+    }
+
+    public static byte[] decode(byte[] data) {
+        byte[] out = new byte[decodedLength(ByteBuffer.wrap(data))];
+        decode(ByteBuffer.wrap(data), ByteBuffer.wrap(out));
+        return out;
+    }
+
+    public static ByteBuffer decode(ByteBuffer input) {
+        ByteBuffer out = ByteBuffer.allocate(decodedLength(input));
+        decode(input, out);
+        out.flip();
+        return out;
+    }
+
+    // Sums the token lengths without consuming input, so decode() can allocate once
+    public static int decodedLength(ByteBuffer input) {
+        ByteBuffer in = input.duplicate();
+        long size = 0;
+        while (in.hasRemaining()) {
+            int header = readVarint(in);
+            boolean repeat = (header & 1) != 0;
+            long len = tokenLength(header);
+            if (in.remaining() < (repeat ? 1 : len)) {
+                throw new IllegalArgumentException("Truncated RLE token of length " + len);
+            }
+            in.position(in.position() + (repeat ? 1 : (int) len));
+            size += len;
+            if (size > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("RLE output exceeds 2 GB");
+        }
+        return (int) size;
+    }
+
+    // Decodes all of input into out, which needs decodedLength(input) room.
+    // Repeats are bulk-filled: Arrays.fill on heap buffers, doubling copies on direct ones
+    public static void decode(ByteBuffer input, ByteBuffer out) {
+        while (input.hasRemaining()) {
+            int header = readVarint(input);
+            long len = tokenLength(header);
+            if ((header & 1) == 0) {
+                if (input.remaining() < len) throw new IllegalArgumentException("Truncated RLE token of length " + len);
+                ByteBuffer src = input.duplicate();
+                src.limit(src.position() + (int) len);
+                out.put(src);
+                input.position(src.limit());
+            } else {
+                if (!input.hasRemaining()) throw new IllegalArgumentException("Truncated RLE token of length " + len);
+                fill(out, input.get(), (int) len);
+            }
+        }
+    }
+
+    static long tokenLength(int header) {
+        return (header >>> 1) + ((header & 1) != 0 ? MIN_REPEAT : 1L);
+    }
+
+    static void fill(ByteBuffer out, byte b, int len) {
+        if (len > out.remaining()) throw new BufferOverflowException();
+        int start = out.position();
+        if (out.hasArray()) {
+            int from = out.arrayOffset() + start;
+            Arrays.fill(out.array(), from, from + len, b);
+            out.position(start + len);
+            return;
+        }
+        out.put(b);
+        ByteBuffer src = out.duplicate();
+        for (int done = 1; done < len; ) {
+            int chunk = Math.min(done, len - done);
+            src.limit(start + chunk);
+            src.position(start);
+            out.put(src);
+            done += chunk;
         }
-        return result.toString();
     }
 
     public static void main(String[] args) {
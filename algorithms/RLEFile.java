@@ -0,0 +1,111 @@
+package algorithms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Binary RLE over files of any size without copying them onto the heap. The input is mapped
+// WINDOW bytes at a time and scanned in place; tokens are staged in a pooled direct buffer and
+// written straight to the output channel. Each window is encoded on its own, so a run crossing a
+// window boundary becomes two tokens, and the output is a plain RLE.encode() token stream.
+public class RLEFile {
+
+    public static final int WINDOW = 1 << 24;
+    // Longest token RLE.encode() emits: a 5-byte header and a full literal chunk
+    private static final int MAX_TOKEN = 5 + RLE.MAX_LITERAL;
+
+    // Direct buffers are slow to allocate and only freed by the GC, so concurrent callers share them
+    private static final ConcurrentLinkedQueue<ByteBuffer> BUFFERS = new ConcurrentLinkedQueue<>();
+
+    // Returns the compressed size in bytes
+    public static long compress(Path in, Path out) throws IOException {
+        try (FileChannel src = FileChannel.open(in, StandardOpenOption.READ);
+             FileChannel dst = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = src.size();
+            long written = 0;
+            ByteBuffer buf = borrow();
+            try {
+                for (long pos = 0; pos < size; pos += WINDOW) {
+                    MappedByteBuffer window = src.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos));
+                    buf.clear();
+                    RLE.encode(window, buf);
+                    buf.flip();
+                    while (buf.hasRemaining()) written += dst.write(buf);
+                }
+            } finally {
+                release(buf);
+            }
+            return written;
+        }
+    }
+
+    // Returns the decompressed size in bytes. A window is remapped at the next token once fewer
+    // than MAX_TOKEN bytes are left in it, so no token is ever split across two mappings
+    public static long decompress(Path in, Path out) throws IOException {
+        try (FileChannel src = FileChannel.open(in, StandardOpenOption.READ);
+             FileChannel dst = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = src.size();
+            long written = 0;
+            ByteBuffer buf = borrow();
+            try {
+                buf.clear();
+                long base = 0;
+                MappedByteBuffer window = null;
+                while (base + (window == null ? 0 : window.position()) < size) {
+                    if (window == null || (window.remaining() < MAX_TOKEN && base + window.limit() < size)) {
+                        if (window != null) base += window.position();
+                        window = src.map(FileChannel.MapMode.READ_ONLY, base, Math.min(WINDOW, size - base));
+                    }
+                    int header = RLE.readVarint(window);
+                    long len = RLE.tokenLength(header);
+                    if ((header & 1) == 0) {
+                        if (len > RLE.MAX_LITERAL) throw new IllegalArgumentException("Literal run of " + len + " bytes");
+                        if (window.remaining() < len) throw new IllegalArgumentException("Truncated RLE token of length " + len);
+                        if (buf.remaining() < len) written += flush(buf, dst);
+                        ByteBuffer literal = window.duplicate();
+                        literal.limit(literal.position() + (int) len);
+                        buf.put(literal);
+                        window.position(literal.limit());
+                    } else {
+                        if (!window.hasRemaining()) throw new IllegalArgumentException("Truncated RLE token of length " + len);
+                        byte b = window.get();
+                        while (len > 0) {
+                            if (!buf.hasRemaining()) written += flush(buf, dst);
+                            int n = (int) Math.min(len, buf.remaining());
+                            RLE.fill(buf, b, n);
+                            len -= n;
+                        }
+                    }
+                }
+                written += flush(buf, dst);
+            } finally {
+                release(buf);
+            }
+            return written;
+        }
+    }
+
+    private static long flush(ByteBuffer buf, FileChannel dst) throws IOException {
+        buf.flip();
+        long n = 0;
+        while (buf.hasRemaining()) n += dst.write(buf);
+        buf.clear();
+        return n;
+    }
+
+    private static ByteBuffer borrow() {
+        ByteBuffer buf = BUFFERS.poll();
+        return buf != null ? buf : ByteBuffer.allocateDirect(RLE.maxEncodedLength(WINDOW));
+    }
+
+    private static void release(ByteBuffer buf) {
+        buf.clear();
+        BUFFERS.offer(buf);
+    }
+}
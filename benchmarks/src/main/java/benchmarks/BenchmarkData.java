@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.Random;
+
+// Deterministic inputs for the codec benchmarks. Every shape draws from the first `alphabet`
+// byte values (printable ones for text), so alphabet size and data shape vary independently.
+public class BenchmarkData {
+
+    public static byte[] generate(String shape, int size, int alphabet, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[size];
+        switch (shape) {
+            case "random":
+                for (int i = 0; i < size; i++) data[i] = (byte) random.nextInt(alphabet);
+                break;
+            case "skewed":
+                // Geometric: each symbol about half as likely as the one before
+                for (int i = 0; i < size; i++) data[i] = (byte) skewed(random, alphabet);
+                break;
+            case "repetitive":
+                for (int i = 0; i < size; ) {
+                    byte b = (byte) random.nextInt(alphabet);
+                    int run = 1 + random.nextInt(64);
+                    for (int k = 0; k < run && i < size; k++) data[i++] = b;
+                }
+                break;
+            case "text":
+                text(random, data, alphabet);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown data shape: " + shape);
+        }
+        return data;
+    }
+
+    private static int skewed(Random random, int alphabet) {
+        int s = (int) (-Math.log(1 - random.nextDouble()) / Math.log(2));
+        return Math.min(s, alphabet - 1);
+    }
+
+    // Space-separated words from a fixed Zipf-like vocabulary over `alphabet` letters
+    private static void text(Random random, byte[] data, int alphabet) {
+        int letters = Math.max(1, Math.min(alphabet - 1, 94));
+        byte[][] words = new byte[1000][];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = new byte[2 + random.nextInt(8)];
+            for (int k = 0; k < words[w].length; k++) words[w][k] = (byte) ('!' + skewed(random, letters));
+        }
+        for (int i = 0; i < data.length; ) {
+            // Rank r is picked with probability about 1 / r
+            byte[] word = words[(int) Math.min(words.length - 1, Math.exp(random.nextDouble() * Math.log(words.length)) - 1)];
+            for (int k = 0; k < word.length && i < data.length; k++) data[i++] = word[k];
+            if (i < data.length) data[i++] = ' ';
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import algorithms.Codec;
+import algorithms.Codecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Encode/decode of every registered codec over input size, alphabet size and data shape.
+// Throughput and per-op latency are both reported; add -prof gc for allocation rates.
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    @Param({"rle", "huffman", "lzw"})
+    public String codec;
+
+    @Param({"65536", "4194304"})
+    public int size;
+
+    @Param({"4", "256"})
+    public int alphabet;
+
+    @Param({"random", "skewed", "repetitive", "text"})
+    public String shape;
+
+    private Codec instance;
+    private byte[] input;
+    private byte[] encoded;
+    private ByteBuffer inputBuffer;
+    private ByteBuffer encodedBuffer;
+    private ByteBuffer encodeOut;
+    private ByteBuffer decodeOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        instance = Codecs.get(codec);
+        input = BenchmarkData.generate(shape, size, alphabet, 42);
+        encoded = instance.encode(input);
+        if (!Arrays.equals(instance.decode(encoded), input)) {
+            throw new IllegalStateException(codec + " does not round-trip " + shape + " data");
+        }
+        inputBuffer = ByteBuffer.wrap(input);
+        encodedBuffer = ByteBuffer.wrap(encoded);
+        encodeOut = ByteBuffer.allocate(instance.maxEncodedLength(size));
+        decodeOut = ByteBuffer.allocate(size);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return instance.encode(input);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return instance.decode(encoded);
+    }
+
+    // Into preallocated buffers, to separate codec cost from result allocation
+    @Benchmark
+    public int encodeInto() {
+        inputBuffer.clear();
+        encodeOut.clear();
+        return instance.encode(inputBuffer, encodeOut);
+    }
+
+    @Benchmark
+    public int decodeInto() {
+        encodedBuffer.clear();
+        decodeOut.clear();
+        return instance.decode(encodedBuffer, decodeOut);
+    }
+}
@@ -0,0 +1,208 @@
+package cli;
+
+import algorithms.Codec;
+import algorithms.Codecs;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Headless batch mode: compresses (or decompresses) every file given, walking directories,
+// one task per file with at most `jobs` running at once. Tasks run on virtual threads when the
+// JVM has them (Java 21+) and on a fixed platform pool otherwise.
+public class BatchCompress {
+
+    static final String USAGE = "Usage: java Main [-c codec] [-l level] [-j jobs] [-d] [-f] [-o outdir] <file|dir>...\n"
+            + "  -c codec   one of " + Codecs.names() + " (default lzw)\n"
+            + "  -l level   lzw only: max code width 9-24, 0 for its default (rle and huffman take no level)\n"
+            + "  -j jobs    files processed at once (default: available processors)\n"
+            + "  -d         decompress .<codec> files instead; outputs drop the extension, other files are skipped\n"
+            + "  -f         overwrite existing outputs (by default a file whose output exists fails)\n"
+            + "  -o outdir  write outputs here instead of next to each input";
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    // Returns the process exit code: 0 when every file succeeded, 1 on any failure, 2 on bad usage
+    public static int run(String[] args) {
+        String codecName = "lzw";
+        int level = Codecs.DEFAULT_LEVEL;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        boolean decompress = false;
+        boolean force = false;
+        Path outDir = null;
+        List<Path> inputs = new ArrayList<>();
+        Codec codec;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-c": codecName = value(args, ++i); break;
+                    case "-l": level = Integer.parseInt(value(args, ++i)); break;
+                    case "-j": jobs = Integer.parseInt(value(args, ++i)); break;
+                    case "-d": decompress = true; break;
+                    case "-f": force = true; break;
+                    case "-o": outDir = Paths.get(value(args, ++i)); break;
+                    case "-h":
+                    case "--help":
+                        System.out.println(USAGE);
+                        return 0;
+                    default:
+                        if (args[i].startsWith("-")) throw new IllegalArgumentException("Unknown option " + args[i]);
+                        inputs.add(Paths.get(args[i]));
+                }
+            }
+            if (inputs.isEmpty()) throw new IllegalArgumentException("No input files");
+            if (jobs < 1) throw new IllegalArgumentException("-j needs at least 1 job");
+            codec = Codecs.get(codecName, level);
+            if (outDir != null) Files.createDirectories(outDir);
+        } catch (IllegalArgumentException | IOException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        // {file, path relative to its input root}, so -o can mirror directory trees
+        List<Path[]> files;
+        try {
+            files = collect(inputs, "." + codec.name(), decompress);
+        } catch (IOException ex) {
+            System.err.println("Cannot list inputs: " + ex.getMessage());
+            return 1;
+        }
+
+        AtomicLong bytesIn = new AtomicLong(), bytesOut = new AtomicLong();
+        int failures = 0;
+        Semaphore permits = new Semaphore(jobs);
+        long start = System.nanoTime();
+        ExecutorService executor = newExecutor(jobs);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Path[] entry : files) {
+                Path file = entry[0];
+                Path target = output(file, entry[1], outDir, codec.name(), decompress);
+                if (target == null) {
+                    System.err.println(file + ": not a ." + codec.name() + " file, skipped");
+                    failures++;
+                    continue;
+                }
+                boolean unpack = decompress;
+                boolean overwrite = force;
+                results.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return process(codec, file, target, unpack, overwrite, bytesIn, bytesOut);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                try {
+                    if (!result.get()) failures++;
+                } catch (Exception ex) {
+                    failures++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Total: %d files, %d -> %d bytes (%.1f%%), %.2f s, %.1f MB/s%s%n",
+                files.size(), bytesIn.get(), bytesOut.get(), ratio(bytesIn.get(), bytesOut.get()), seconds,
+                bytesIn.get() / 1e6 / Math.max(seconds, 1e-9), failures > 0 ? ", " + failures + " failed" : "");
+        return failures > 0 ? 1 : 0;
+    }
+
+    private static boolean process(Codec codec, Path file, Path target, boolean decompress, boolean force,
+                                   AtomicLong bytesIn, AtomicLong bytesOut) {
+        try {
+            long start = System.nanoTime();
+            // Checked up front to skip the work; CREATE_NEW still catches a file appearing meanwhile
+            if (!force && Files.exists(target)) throw new FileAlreadyExistsException(target.toString());
+            byte[] data = Files.readAllBytes(file);
+            byte[] result = decompress ? codec.decode(data) : codec.encode(data);
+            Files.createDirectories(target.getParent());
+            if (force) Files.write(target, result);
+            else Files.write(target, result, StandardOpenOption.CREATE_NEW);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            bytesIn.addAndGet(data.length);
+            bytesOut.addAndGet(result.length);
+            System.out.printf("%s: %d -> %d bytes (%.1f%%), %.1f ms, %.1f MB/s%n", file, data.length, result.length,
+                    ratio(data.length, result.length), seconds * 1e3, data.length / 1e6 / Math.max(seconds, 1e-9));
+            return true;
+        } catch (FileAlreadyExistsException ex) {
+            System.err.println(file + ": " + ex.getFile() + " already exists, use -f to overwrite");
+            return false;
+        } catch (IOException | RuntimeException | OutOfMemoryError ex) {
+            System.err.println(file + ": " + ex);
+            return false;
+        }
+    }
+
+    // Regular files under the inputs. Directory walks keep only files carrying suffix when
+    // decompressing and skip them when compressing; files named directly are always kept
+    private static List<Path[]> collect(List<Path> inputs, String suffix, boolean decompress) throws IOException {
+        List<Path[]> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> walk = Files.walk(input)) {
+                    files.addAll(walk.filter(Files::isRegularFile)
+                            .filter(p -> p.toString().endsWith(suffix) == decompress)
+                            .sorted()
+                            .map(p -> new Path[]{p, input.relativize(p)})
+                            .collect(Collectors.toList()));
+                }
+            } else if (Files.isRegularFile(input)) {
+                files.add(new Path[]{input, input.getFileName()});
+            } else {
+                throw new IOException("No such file: " + input);
+            }
+        }
+        return files;
+    }
+
+    // Where a file's output goes, or null when decompressing a file without the codec's extension
+    private static Path output(Path file, Path relative, Path outDir, String codecName, boolean decompress) {
+        String name = file.getFileName().toString();
+        String suffix = "." + codecName;
+        if (!decompress) name += suffix;
+        else if (name.endsWith(suffix) && name.length() > suffix.length()) name = name.substring(0, name.length() - suffix.length());
+        else return null;
+        if (outDir == null) return file.toAbsolutePath().resolveSibling(name);
+        return outDir.resolve(relative).resolveSibling(name);
+    }
+
+    // Virtual threads are looked up reflectively so the project still builds and runs on Java 11;
+    // on 19/20 without --enable-preview the call throws and we fall back too
+    static ExecutorService newExecutor(int jobs) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return Executors.newFixedThreadPool(jobs);
+        }
+    }
+
+    private static double ratio(long in, long out) {
+        return in == 0 ? 0 : 100.0 * out / in;
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        return args[i];
+    }
+}
@@ -1,23 +1,39 @@
 package gui;
 
+import algorithms.Codec;
+import algorithms.Codecs;
 
 import java.awt.BorderLayout;
-import java.util.Comparator;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.FlowLayout;
 import java.awt.Font;
+import java.awt.GridLayout;
 // import java.awt.event.*;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.PriorityQueue;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CompressionGUI extends JFrame {
     private JTextArea inputArea;
     private JTable table;
     private DefaultTableModel model;
     private JLabel teachingLabel;
+    private JButton compareButton, cancelButton;
+    private JProgressBar progressBar;
+    private JCheckBox estimateCheck;
+    private JSpinner errorSpinner;
+    private CompareWorker worker;
+
+    // Table label -> registry name, in display order
+    private static final String[][] ALGORITHMS = {{"RLE", "rle"}, {"Huffman", "huffman"}, {"LZW", "lzw"}};
 
     public CompressionGUI() {
         setTitle("Compression Comparison");
@@ -40,8 +56,29 @@ public class CompressionGUI extends JFrame {
         JScrollPane scrollPane = new JScrollPane(inputArea);
         topPanel.add(scrollPane, BorderLayout.CENTER);
 
-        JButton compareButton = new JButton("Compare Compression");
-        topPanel.add(compareButton, BorderLayout.EAST);
+        compareButton = new JButton("Compare Compression");
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+        JPanel buttonPanel = new JPanel(new GridLayout(2, 1, 5, 5));
+        buttonPanel.add(compareButton);
+        buttonPanel.add(cancelButton);
+        topPanel.add(buttonPanel, BorderLayout.EAST);
+        // Estimate mode predicts sizes from a sample instead of compressing everything
+        estimateCheck = new JCheckBox("Estimate only, within \u00b1");
+        errorSpinner = new JSpinner(new SpinnerNumberModel(Codecs.DEFAULT_ERROR * 100, 0.5, 50.0, 0.5));
+        errorSpinner.setEnabled(false);
+        estimateCheck.addActionListener(e -> errorSpinner.setEnabled(estimateCheck.isSelected()));
+        JPanel estimatePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        estimatePanel.add(estimateCheck);
+        estimatePanel.add(errorSpinner);
+        estimatePanel.add(new JLabel("%"));
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        JPanel southPanel = new JPanel(new BorderLayout(5, 5));
+        southPanel.add(estimatePanel, BorderLayout.WEST);
+        southPanel.add(progressBar, BorderLayout.CENTER);
+        topPanel.add(southPanel, BorderLayout.SOUTH);
         mainPanel.add(topPanel, BorderLayout.NORTH);
 
         String[] columns = {"Algorithm", "Original Size (bytes)", "Compressed Size (bytes)", "Compression Ratio (%)"};
@@ -62,6 +99,9 @@ public class CompressionGUI extends JFrame {
         mainPanel.add(teachingLabel, BorderLayout.SOUTH);
 
         compareButton.addActionListener(e -> compareCompression());
+        cancelButton.addActionListener(e -> {
+            if (worker != null) worker.cancel(true);
+        });
     }
 
     private void compareCompression() {
@@ -71,126 +111,114 @@ public class CompressionGUI extends JFrame {
             return;
         }
 
-        int originalSize = text.getBytes().length; // bytes
         model.setRowCount(0);
+        TableCellRendererImpl.bestRow = -1;
+        TableCellRendererImpl.worstRow = -1;
+        teachingLabel.setText("");
+        compareButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+
+        double error = estimateCheck.isSelected() ? ((Number) errorSpinner.getValue()).doubleValue() / 100 : 0;
+        worker = new CompareWorker(text, error);
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) progressBar.setValue((Integer) e.getNewValue());
+        });
+        worker.execute();
+    }
 
-        // RLE
-        String rle = compressRLE(text);
-        int rleSize = rle.getBytes().length;
-        double rleRatio = originalSize == 0 ? 0 : (100.0 * rleSize / originalSize);
-        model.addRow(new Object[]{"RLE", originalSize, rleSize, String.format("%.1f", rleRatio)});
-
-        // Huffman
-        int huffBits = compressHuffman(text);
-        int huffSize = (huffBits + 7) / 8;
-        double huffRatio = originalSize == 0 ? 0 : (100.0 * huffSize / originalSize);
-        model.addRow(new Object[]{"Huffman", originalSize, huffSize, String.format("%.1f", huffRatio)});
-
-        // LZW
-        int lzwBits = compressLZW(text);
-        int lzwSize = (lzwBits + 7) / 8;
-        double lzwRatio = originalSize == 0 ? 0 : (100.0 * lzwSize / originalSize);
-        model.addRow(new Object[]{"LZW", originalSize, lzwSize, String.format("%.1f", lzwRatio)});
+    // Encodes the UTF-8 bytes with every codec at once on a pool of its own and publishes each table row
+    // as soon as its codec finishes. A positive error switches to sampled size estimates
+    private class CompareWorker extends SwingWorker<Void, Object[]> {
+        private final String text;
+        private final double error;
 
-        int bestRow = 0, worstRow = 0;
-        double best = Double.MAX_VALUE, worst = -1;
-        for (int i = 0; i < 3; i++) {
-            double ratio = Double.parseDouble((String)model.getValueAt(i, 3));
-            if (ratio < best) { best = ratio; bestRow = i; }
-            if (ratio > worst) { worst = ratio; worstRow = i; }
+        CompareWorker(String text, double error) {
+            this.text = text;
+            this.error = error;
         }
-        TableCellRendererImpl.bestRow = bestRow;
-        TableCellRendererImpl.worstRow = worstRow;
-        table.repaint();
-
-        teachingLabel.setText(
-            "<html>"
-            + "<b>RLE:</b> Efficient for text with repeated characters. &nbsp; &nbsp; "
-            + "<b>Huffman:</b> Best when character frequencies vary. &nbsp; &nbsp; "
-            + "<b>LZW:</b> Suited for text with repeated patterns or dictionary words."
-            + "</html>");
-    }
 
-    private String compressRLE(String text) {
-        StringBuilder sb = new StringBuilder();
-        int count = 1;
-        for (int i = 1; i <= text.length(); i++) {
-            if (i < text.length() && text.charAt(i) == text.charAt(i - 1)) {
-                count++;
-            } else {
-                sb.append(text.charAt(i - 1)).append(count);
-                count = 1;
+        @Override
+        protected Void doInBackground() throws Exception {
+            byte[] input = text.getBytes(StandardCharsets.UTF_8);
+            // One pool per run, shut down when the run ends, so a cancelled run never holds threads the
+            // next one needs; daemon threads so an abandoned comparison never blocks exit
+            ExecutorService pool = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(ALGORITHMS.length, Runtime.getRuntime().availableProcessors())), r -> {
+                        Thread t = new Thread(r, "compare-codec");
+                        t.setDaemon(true);
+                        return t;
+                    });
+            CompletionService<Object[]> results = new ExecutorCompletionService<>(pool);
+            for (String[] algorithm : ALGORITHMS) {
+                results.submit(() -> {
+                    Codec codec = Codecs.get(algorithm[1]);
+                    long size = error > 0
+                            ? codec.estimateEncodedLength(ByteBuffer.wrap(input), error)
+                            : codec.encode(input).length;
+                    double ratio = input.length == 0 ? 0 : (100.0 * size / input.length);
+                    String label = error > 0 ? algorithm[0] + " (est.)" : algorithm[0];
+                    return new Object[]{label, input.length, size, String.format("%.1f", ratio)};
+                });
             }
+            try {
+                for (int done = 1; done <= ALGORITHMS.length; done++) {
+                    publish(results.take().get());
+                    setProgress(100 * done / ALGORITHMS.length);
+                }
+            } finally {
+                // Reached on cancel (take() is interrupted) or failure; shutdownNow() interrupts the
+                // codecs still running, which stop at their next chunk boundary
+                pool.shutdownNow();
+            }
+            return null;
         }
-        return sb.toString();
-    }
-
-    private int compressHuffman(String text) {
-        Map<Character, Integer> freq = new HashMap<>();
-        for (char c : text.toCharArray())
-            freq.put(c, freq.getOrDefault(c, 0) + 1);
-
-        PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingInt(n -> n.freq));
-        for (var entry : freq.entrySet())
-            pq.add(new Node(entry.getKey(), entry.getValue()));
-        if (pq.size() == 1) pq.add(new Node('\0', 1));
-
-        while (pq.size() > 1) {
-            Node a = pq.poll(), b = pq.poll();
-            pq.add(new Node('\0', a.freq + b.freq, a, b));
-        }
-
-        Map<Character, String> codes = new HashMap<>();
-        buildCodes(pq.peek(), "", codes);
-
-        int bits = 0;
-        for (char c : text.toCharArray())
-            bits += codes.get(c).length();
 
-        return bits;
-    }
-
-    private void buildCodes(Node node, String code, Map<Character, String> codes) {
-        if (node == null) return;
-        if (node.left == null && node.right == null) {
-            codes.put(node.ch, code.length() > 0 ? code : "0");
+        @Override
+        protected void process(List<Object[]> rows) {
+            if (isCancelled()) return;
+            for (Object[] row : rows) model.addRow(row);
+            highlightBestAndWorst();
         }
-        buildCodes(node.left, code + "0", codes);
-        buildCodes(node.right, code + "1", codes);
-    }
 
-    static class Node {
-        char ch;
-        int freq;
-        Node left, right;
-        Node(char ch, int freq) { this.ch = ch; this.freq = freq; }
-        Node(char ch, int freq, Node left, Node right) {
-            this.ch = ch; this.freq = freq; this.left = left; this.right = right;
+        @Override
+        protected void done() {
+            compareButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            progressBar.setVisible(false);
+            if (isCancelled()) {
+                teachingLabel.setText("Comparison cancelled.");
+                return;
+            }
+            try {
+                get();
+            } catch (InterruptedException | ExecutionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                JOptionPane.showMessageDialog(CompressionGUI.this, "Compression failed: " + cause.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            teachingLabel.setText(
+                "<html>"
+                + "<b>RLE:</b> Efficient for text with repeated characters. &nbsp; &nbsp; "
+                + "<b>Huffman:</b> Best when character frequencies vary. &nbsp; &nbsp; "
+                + "<b>LZW:</b> Suited for text with repeated patterns or dictionary words."
+                + "</html>");
         }
     }
 
-    private int compressLZW(String text) {
-        Map<String, Integer> dict = new HashMap<>();
-        for (int i = 0; i < 256; i++)
-            dict.put("" + (char) i, i);
-
-        String w = "";
-        java.util.List<Integer> result = new java.util.ArrayList<>();
-        int dictSize = 256;
-
-        for (char c : text.toCharArray()) {
-            String wc = w + c;
-            if (dict.containsKey(wc)) {
-                w = wc;
-            } else {
-                result.add(dict.get(w));
-                dict.put(wc, dictSize++);
-                w = "" + c;
-            }
+    private void highlightBestAndWorst() {
+        int bestRow = 0, worstRow = 0;
+        double best = Double.MAX_VALUE, worst = -1;
+        for (int i = 0; i < model.getRowCount(); i++) {
+            double ratio = Double.parseDouble((String)model.getValueAt(i, 3));
+            if (ratio < best) { best = ratio; bestRow = i; }
+            if (ratio > worst) { worst = ratio; worstRow = i; }
         }
-        if (!w.isEmpty()) result.add(dict.get(w));
-
-        return result.size() * 12;
+        TableCellRendererImpl.bestRow = bestRow;
+        TableCellRendererImpl.worstRow = worstRow;
+        table.repaint();
     }
 
     static class TableCellRendererImpl extends DefaultTableCellRenderer {
@@ -119,7 +119,9 @@ public class HuffmanPanel extends JPanel {
             JOptionPane.showMessageDialog(this, "Please enter text to compress.", "Warning", JOptionPane.WARNING_MESSAGE);
             return;
         }
-        compressResult = Huffman.compressWithSteps(inputText);
+        compressResult = stepModeCheck.isSelected()
+                ? Huffman.compressWithSteps(inputText)
+                : Huffman.compressWithSteps(inputText, Huffman.StepListener.NONE);
         root = compressResult.root;
         codes = compressResult.codes;
         encoded = compressResult.encoded;
@@ -155,6 +157,11 @@ public class HuffmanPanel extends JPanel {
 
     private void toggleStepMode() {
         boolean stepMode = stepModeCheck.isSelected();
+        // Steps are only recorded in step mode; record them now if compression ran without it
+        if (stepMode && compressResult != null && compressResult.steps.isEmpty()) {
+            compressResult = Huffman.compressWithSteps(inputText);
+            stepIndex = 0;
+        }
         prevStepButton.setEnabled(stepMode);
         nextStepButton.setEnabled(stepMode && compressResult != null);
         if (stepMode && compressResult != null) {
@@ -19,6 +19,7 @@ public class LZWPanel extends JPanel {
 
     private JCheckBox teachingModeCheck;
     private JButton nextStepButton, prevStepButton;
+    private JSlider stepSlider;
     private JTextArea teachingExplainArea;
     private JTable dictTable;
     private java.util.List<LZW.TeachingStep> teachingSteps;
@@ -50,12 +51,17 @@ public class LZWPanel extends JPanel {
         nextStepButton = new JButton("Next Step");
         nextStepButton.setEnabled(false);
         prevStepButton.setEnabled(false);
+        // Jump straight to any step; steps are rebuilt from the trace on demand
+        stepSlider = new JSlider(0, 0, 0);
+        stepSlider.setEnabled(false);
+        stepSlider.setToolTipText("Drag to jump to a step");
 
         buttonPanel.add(compressButton);
         buttonPanel.add(decompressButton);
         buttonPanel.add(teachingModeCheck);
         buttonPanel.add(prevStepButton);
         buttonPanel.add(nextStepButton);
+        buttonPanel.add(stepSlider);
 
         // Teaching step explanation area
         teachingExplainArea = new JTextArea(2, 60);
@@ -135,6 +141,7 @@ public class LZWPanel extends JPanel {
             boolean teaching = teachingModeCheck.isSelected();
             nextStepButton.setEnabled(teaching && teachingSteps != null && teachingSteps.size() > 0);
             prevStepButton.setEnabled(teaching && teachingStepIdx > 0 && teachingSteps != null && teachingSteps.size() > 0);
+            stepSlider.setEnabled(teaching && teachingSteps != null && teachingSteps.size() > 1);
             teachingExplainArea.setVisible(teaching);
             dictScroll.setVisible(teaching);
             if (!teaching) {
@@ -146,6 +153,9 @@ public class LZWPanel extends JPanel {
         });
         nextStepButton.addActionListener(e -> showTeachingStep(teachingStepIdx + 1));
         prevStepButton.addActionListener(e -> showTeachingStep(teachingStepIdx - 1));
+        stepSlider.addChangeListener(e -> {
+            if (stepSlider.getValue() != teachingStepIdx) showTeachingStep(stepSlider.getValue());
+        });
 
         // Hide teaching stuff by default
         teachingExplainArea.setVisible(false);
@@ -164,6 +174,9 @@ public class LZWPanel extends JPanel {
             teachingCompressed = result.compressed.toString().replaceAll("[\\[\\] ]", "");
             teachingInput = input;
             teachingStepIdx = 0;
+            stepSlider.setValue(0);
+            stepSlider.setMaximum(Math.max(0, teachingSteps.size() - 1));
+            stepSlider.setEnabled(teachingSteps.size() > 1);
             showTeachingStep(0);
             nextStepButton.setEnabled(teachingSteps.size() > 1);
             prevStepButton.setEnabled(false);
@@ -229,6 +242,7 @@ public class LZWPanel extends JPanel {
 
         prevStepButton.setEnabled(teachingStepIdx > 0);
         nextStepButton.setEnabled(teachingStepIdx < teachingSteps.size() - 1);
+        stepSlider.setValue(teachingStepIdx);
 
         if (teachingStepIdx == teachingSteps.size() - 1) {
             compressedArea.setText("[" + teachingCompressed + "]");
@@ -0,0 +1,66 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.Test;
+
+class CodecsTest {
+
+    // Spans a few cancel-check slices, with runs straddling the slice edges
+    private static byte[] sample() {
+        byte[] data = new byte[3 * Codecs.CANCEL_CHECK_BYTES + 1234];
+        Random random = new Random(3);
+        for (int i = 0; i < data.length; i++) data[i] = (byte) (random.nextInt(3) == 0 ? 0 : random.nextInt(40));
+        for (int k = 1; k <= 3; k++) {
+            for (int d = -5; d < 5; d++) data[k * Codecs.CANCEL_CHECK_BYTES + d] = 9;
+        }
+        return data;
+    }
+
+    @Test
+    void slicedEncodesRoundTrip() {
+        byte[] data = sample();
+        for (String name : Codecs.names()) {
+            Codec codec = Codecs.get(name);
+            byte[] encoded = codec.encode(data);
+            assertTrue(encoded.length <= codec.maxEncodedLength(data.length), name);
+            assertArrayEquals(data, codec.decode(encoded), name);
+
+            ByteBuffer out = ByteBuffer.allocate(codec.maxEncodedLength(data.length));
+            codec.encode(ByteBuffer.wrap(data), out);
+            out.flip();
+            ByteBuffer restored = ByteBuffer.allocate(data.length);
+            codec.decode(out, restored);
+            assertArrayEquals(data, restored.array(), name);
+        }
+        assertArrayEquals(Huffman.encode(data, 0, data.length), Codecs.get("huffman").encode(data));
+        assertArrayEquals(LZW.encode(data), Codecs.get("lzw").encode(data));
+    }
+
+    @Test
+    void interruptedEncodeStopsAndKeepsTheFlag() {
+        byte[] data = sample();
+        for (String name : Codecs.names()) {
+            Codec codec = Codecs.get(name);
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(CancellationException.class, () -> codec.encode(data), name);
+                assertTrue(Thread.currentThread().isInterrupted(), name);
+            } finally {
+                Thread.interrupted();
+            }
+        }
+        // The encoders themselves ignore interruption
+        Thread.currentThread().interrupt();
+        try {
+            assertArrayEquals(data, RLE.decode(RLE.encode(data)));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
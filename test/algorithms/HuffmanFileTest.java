@@ -0,0 +1,37 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HuffmanFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        byte[] data = new byte[300_000];
+        Random random = new Random(7);
+        for (int i = 0; i < data.length; i++) data[i] = (byte) ('a' + random.nextInt(random.nextInt(26) + 1));
+        Path original = Files.write(dir.resolve("in.txt"), data);
+        Path packed = dir.resolve("in.huf");
+        HuffmanFile.compress(original, packed);
+
+        Path restored = dir.resolve("restored.txt");
+        HuffmanFile.decompress(packed, restored);
+        assertArrayEquals(data, Files.readAllBytes(restored));
+
+        byte[] encoded = Files.readAllBytes(packed);
+        Path cut = Files.write(dir.resolve("cut.huf"), Arrays.copyOf(encoded, encoded.length * 2 / 3));
+        assertThrows(EOFException.class, () -> HuffmanFile.decompress(cut, dir.resolve("cut.txt")));
+    }
+}
@@ -0,0 +1,75 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class HuffmanTest {
+
+    private static final String TEXT = "abracadabra, the quick brown fox jumps over the lazy dog. ".repeat(90);
+
+    @Test
+    void roundTrips() {
+        byte[] input = TEXT.getBytes(StandardCharsets.UTF_8);
+        Codec codec = Codecs.get("huffman");
+        assertArrayEquals(input, codec.decode(codec.encode(input)));
+        assertEquals(TEXT, Huffman.decode(Huffman.encode(TEXT).data));
+        assertEquals(TEXT, InterleavedHuffman.decode(InterleavedHuffman.encode(TEXT)));
+        assertEquals(TEXT, BlockHuffman.decode(BlockHuffman.encode(TEXT, 1000, ForkJoinPool.commonPool())));
+    }
+
+    @Test
+    void rejectsTruncatedStream() {
+        byte[] input = TEXT.getBytes(StandardCharsets.UTF_8);
+        Codec codec = Codecs.get("huffman");
+        byte[] encoded = codec.encode(input);
+        byte[] cut = Arrays.copyOf(encoded, encoded.length * 2 / 3);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(cut));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(ByteBuffer.wrap(cut), ByteBuffer.allocate(input.length)));
+        assertThrows(IllegalArgumentException.class, () -> Huffman.decode(cut));
+    }
+
+    @Test
+    void rejectsTruncatedStreamAtEveryCut() {
+        byte[] encoded = Huffman.encode(TEXT).data;
+        for (int length = 1; length < encoded.length; length++) {
+            byte[] cut = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> Huffman.decode(cut), "cut at " + length);
+        }
+    }
+
+    @Test
+    void rejectsTruncatedInterleavedAndBlockStreams() {
+        byte[] interleaved = InterleavedHuffman.encode(TEXT);
+        byte[] blocks = BlockHuffman.encode(TEXT, 1000, ForkJoinPool.commonPool());
+        for (int length = 1; length < interleaved.length; length += 7) {
+            byte[] cut = Arrays.copyOf(interleaved, length);
+            assertThrows(IllegalArgumentException.class, () -> InterleavedHuffman.decode(cut), "cut at " + length);
+        }
+        for (int length = 1; length < blocks.length; length += 7) {
+            byte[] cut = Arrays.copyOf(blocks, length);
+            assertThrows(IllegalArgumentException.class, () -> BlockHuffman.decode(cut), "cut at " + length);
+        }
+    }
+
+    @Test
+    void rejectsNegativeCount() {
+        byte[] encoded = Huffman.encode(TEXT).data;
+        BitReader in = new BitReader(encoded);
+        HuffmanCode.readHeader(in);
+        int countByte = (int) (in.bitPosition() >>> 3);
+        int shift = (int) (in.bitPosition() & 7);
+        // Set the top bit of the 32-bit count
+        encoded[countByte] |= (byte) (0x80 >>> shift);
+        assertThrows(IllegalArgumentException.class, () -> Huffman.decode(encoded));
+        assertThrows(IllegalArgumentException.class, () -> Codecs.get("huffman").decode(encoded));
+    }
+}